@@ -0,0 +1,41 @@
+package com.yungnickyoung.minecraft.betterdungeons.harness;
+
+import com.electronwill.nightconfig.core.CommentedConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructurePieces;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.util.registry.WorldGenRegistries;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.Biomes;
+
+/**
+ * Sets up the parts of the game and the mod needed by the benchmarks and the regression harness,
+ * without starting a server.
+ */
+public class HarnessBootstrap {
+    private static boolean initialized;
+
+    public static synchronized void init() {
+        if (initialized) return;
+        initialized = true;
+
+        // Vanilla blocks, biomes and registries
+        Bootstrap.register();
+
+        // Default config values, as if the config file had just been created
+        BDConfig.SPEC.setConfig(CommentedConfig.inMemory());
+        BDConfigSnapshot.rebuild();
+
+        // Piece types, normally registered during mod construction
+        BDModStructurePieces.init();
+
+        // Processor types, needed to decode our processor lists
+        BDModProcessors.register();
+    }
+
+    public static Biome getPlains() {
+        return WorldGenRegistries.BIOME.getValueForKey(Biomes.PLAINS);
+    }
+}
@@ -0,0 +1,216 @@
+package com.yungnickyoung.minecraft.betterdungeons.harness;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.EmptyTickList;
+import net.minecraft.world.ISeedReader;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.IChunk;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stand-in for the world passed to structure pieces and processors.
+ *
+ * Terrain is flat: every position below the surface height is the fill block, and everything above is air.
+ * Writes are stored in chunk sections, which are created on first write from the flat terrain.
+ *
+ * The ISeedReader and IChunk views are dynamic proxies, so that only the handful of methods used
+ * during dungeon generation need to be implemented. Other abstract methods return zero values,
+ * and default methods run their normal implementation against the proxy.
+ */
+public class StubSeedReader implements InvocationHandler {
+    private static final Map<Method, MethodHandle> DEFAULT_METHODS = new ConcurrentHashMap<>();
+
+    private final long seed;
+    private final int surfaceY;
+    private final BlockState fill;
+    private final Biome biome;
+
+    private final Long2ObjectMap<ChunkSection[]> chunks = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<TileEntity> tileEntities = new Long2ObjectOpenHashMap<>();
+
+    private final ISeedReader world;
+    private final IChunk chunk;
+
+    public StubSeedReader(long seed, int surfaceY, BlockState fill, Biome biome) {
+        this.seed = seed;
+        this.surfaceY = surfaceY;
+        this.fill = fill;
+        this.biome = biome;
+        this.world = (ISeedReader) Proxy.newProxyInstance(ISeedReader.class.getClassLoader(), new Class<?>[]{ISeedReader.class}, this);
+        this.chunk = (IChunk) Proxy.newProxyInstance(IChunk.class.getClassLoader(), new Class<?>[]{IChunk.class}, this);
+    }
+
+    public ISeedReader getWorld() {
+        return world;
+    }
+
+    /**
+     * Discards every write, restoring the flat terrain.
+     */
+    public void clear() {
+        chunks.clear();
+        tileEntities.clear();
+    }
+
+    /**
+     * Returns the chunk sections written so far, keyed by chunk position.
+     */
+    public Long2ObjectMap<ChunkSection[]> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Returns the block entities created so far, keyed by packed block position.
+     */
+    public Long2ObjectMap<TileEntity> getTileEntities() {
+        return tileEntities;
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        int y = pos.getY();
+        if (y < 0 || y > 255) return Blocks.VOID_AIR.getDefaultState();
+
+        ChunkSection[] sections = chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        ChunkSection section = sections == null ? null : sections[y >> 4];
+        return section == null
+            ? getTerrain(y)
+            : section.getBlockState(pos.getX() & 15, y & 15, pos.getZ() & 15);
+    }
+
+    public BlockState setBlockState(BlockPos pos, BlockState state) {
+        int y = pos.getY();
+        if (y < 0 || y > 255) return Blocks.VOID_AIR.getDefaultState();
+
+        ChunkSection[] sections = chunks.computeIfAbsent(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), key -> new ChunkSection[16]);
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            section = createSection(y >> 4);
+            sections[y >> 4] = section;
+        }
+
+        TileEntity tileEntity = state.hasTileEntity() ? state.createTileEntity(world) : null;
+        if (tileEntity != null) {
+            tileEntity.setPos(pos.toImmutable());
+            tileEntities.put(pos.toLong(), tileEntity);
+        } else {
+            tileEntities.remove(pos.toLong());
+        }
+
+        return section.setBlockState(pos.getX() & 15, y & 15, pos.getZ() & 15, state, false);
+    }
+
+    /**
+     * Returns the block at the given height before anything was written.
+     */
+    public BlockState getTerrain(int y) {
+        return y < surfaceY ? fill : Blocks.AIR.getDefaultState();
+    }
+
+    private ChunkSection createSection(int sectionY) {
+        ChunkSection section = new ChunkSection(sectionY << 4);
+        for (int y = 0; y < 16; y++) {
+            BlockState state = getTerrain((sectionY << 4) + y);
+            if (state.isAir()) continue;
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    section.setBlockState(x, y, z, state, false);
+                }
+            }
+        }
+        return section;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getBlockState":
+                return getBlockState((BlockPos) args[0]);
+            case "getFluidState":
+                return getBlockState((BlockPos) args[0]).getFluidState();
+            case "setBlockState": {
+                BlockState previous = setBlockState((BlockPos) args[0], (BlockState) args[1]);
+                return method.getReturnType() == boolean.class ? Boolean.TRUE : previous;
+            }
+            case "getTileEntity":
+                return tileEntities.get(((BlockPos) args[0]).toLong());
+            case "getSeed":
+                return seed;
+            case "getBiome":
+                return biome;
+            case "getHeight":
+            case "getTopBlockY":
+                if (method.getReturnType() == int.class) return surfaceY;
+                if (method.getReturnType() == BlockPos.class) {
+                    BlockPos pos = (BlockPos) args[1];
+                    return new BlockPos(pos.getX(), surfaceY, pos.getZ());
+                }
+                break;
+            case "getChunk":
+                if (IChunk.class.isAssignableFrom(method.getReturnType())) return chunk;
+                break;
+            case "getPendingBlockTicks":
+            case "getPendingFluidTicks":
+                return EmptyTickList.get();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "StubSeedReader";
+        }
+
+        if (method.isDefault()) {
+            return getDefaultMethod(method).bindTo(proxy).invokeWithArguments(args == null ? new Object[0] : args);
+        }
+        return getZeroValue(method.getReturnType());
+    }
+
+    private static MethodHandle getDefaultMethod(Method method) {
+        return DEFAULT_METHODS.computeIfAbsent(method, key -> {
+            Class<?> declaringClass = key.getDeclaringClass();
+            try {
+                MethodHandles.Lookup lookup;
+                try {
+                    // Java 9+
+                    Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+                    lookup = (MethodHandles.Lookup) privateLookupIn.invoke(null, declaringClass, MethodHandles.lookup());
+                } catch (NoSuchMethodException e) {
+                    // Java 8
+                    Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                    constructor.setAccessible(true);
+                    lookup = constructor.newInstance(declaringClass, MethodHandles.Lookup.PRIVATE);
+                }
+                return lookup.unreflectSpecial(key, declaringClass);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to call default method " + key, e);
+            }
+        });
+    }
+
+    private static Object getZeroValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+}
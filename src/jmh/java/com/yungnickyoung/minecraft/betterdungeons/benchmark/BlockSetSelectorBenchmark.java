@@ -0,0 +1,61 @@
+package com.yungnickyoung.minecraft.betterdungeons.benchmark;
+
+import com.yungnickyoung.minecraft.betterdungeons.harness.HarnessBootstrap;
+import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples block states the way our processors and pieces do, from a single-entry and a multi-entry selector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockSetSelectorBenchmark {
+    private BlockSetSelector singleSelector;
+    private BlockSetSelector stairSelector;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        HarnessBootstrap.init();
+        random = new Random(1234L);
+
+        singleSelector = BlockSetSelector.from(Blocks.COBWEB.getDefaultState());
+
+        // Same distribution as the zombie dungeon main staircase
+        stairSelector = new BlockSetSelector(Blocks.COBBLESTONE_STAIRS.getDefaultState())
+            .addBlock(Blocks.MOSSY_COBBLESTONE_STAIRS.getDefaultState(), 0.4f)
+            .addBlock(Blocks.COBBLESTONE_SLAB.getDefaultState(), 0.1f)
+            .addBlock(Blocks.MOSSY_COBBLESTONE_SLAB.getDefaultState(), 0.1f)
+            .addBlock(Blocks.CAVE_AIR.getDefaultState(), 0.1f)
+            .addBlock(Blocks.COBBLESTONE.getDefaultState(), 0.1f)
+            .addBlock(Blocks.MOSSY_COBBLESTONE.getDefaultState(), 0.1f);
+    }
+
+    @Benchmark
+    public BlockState sampleSingle() {
+        return singleSelector.get(random);
+    }
+
+    @Benchmark
+    public BlockState sampleStairs() {
+        return stairSelector.get(random);
+    }
+}
@@ -0,0 +1,143 @@
+package com.yungnickyoung.minecraft.betterdungeons.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.yungnickyoung.minecraft.betterdungeons.harness.HarnessBootstrap;
+import com.yungnickyoung.minecraft.betterdungeons.harness.StubSeedReader;
+import com.yungnickyoung.minecraft.betterdungeons.world.DungeonContext;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.HeadProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.MobSpawnerProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.NetherBlockProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.WaterloggedProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dungeon.RuinedStoneBrickProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dungeon.SkeletonDungeonLegProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dungeon.SkeletonMobSpawnerProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonBannerProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonCeilingLampPropProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonCeilingProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonCeilingPropProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonChestProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonCobblestoneProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonLegProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon.SmallDungeonOreProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieDungeonCubbyProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieDungeonFlowerPotProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieDungeonLegProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieDungeonStairProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieMainStairsProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieMobSpawnerProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieRotProcessor;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon.ZombieTombstoneSpawnerProcessor;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.feature.template.PlacementSettings;
+import net.minecraft.world.gen.feature.template.StructureProcessor;
+import net.minecraft.world.gen.feature.template.Template;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each processor over a synthetic template block stream straddling the terrain surface,
+ * so processors probing the world below their blocks (e.g. the leg processors) do real work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessorBenchmark {
+    private static final long SEED = 1234L;
+    private static final int SURFACE_Y = 40;
+    private static final int TEMPLATE_SIZE = 16;
+    private static final BlockPos ORIGIN = new BlockPos(0, SURFACE_Y - TEMPLATE_SIZE / 2, 0);
+
+    private static final Map<String, StructureProcessor> PROCESSORS = ImmutableMap.<String, StructureProcessor>builder()
+        .put("WaterloggedProcessor", WaterloggedProcessor.INSTANCE)
+        .put("MobSpawnerProcessor", MobSpawnerProcessor.INSTANCE)
+        .put("HeadProcessor", HeadProcessor.INSTANCE)
+        .put("NetherBlockProcessor", NetherBlockProcessor.INSTANCE)
+        .put("SmallDungeonCeilingPropProcessor", SmallDungeonCeilingPropProcessor.INSTANCE)
+        .put("SmallDungeonCeilingLampPropProcessor", SmallDungeonCeilingLampPropProcessor.INSTANCE)
+        .put("SmallDungeonBannerProcessor", SmallDungeonBannerProcessor.INSTANCE)
+        .put("SmallDungeonChestProcessor", SmallDungeonChestProcessor.INSTANCE)
+        .put("SmallDungeonCobblestoneProcessor", SmallDungeonCobblestoneProcessor.INSTANCE)
+        .put("SmallDungeonLegProcessor", SmallDungeonLegProcessor.INSTANCE)
+        .put("SmallDungeonCeilingProcessor", SmallDungeonCeilingProcessor.INSTANCE)
+        .put("SmallDungeonOreProcessor", SmallDungeonOreProcessor.INSTANCE)
+        .put("RuinedStoneBrickProcessor", RuinedStoneBrickProcessor.INSTANCE)
+        .put("SkeletonMobSpawnerProcessor", SkeletonMobSpawnerProcessor.INSTANCE)
+        .put("SkeletonDungeonLegProcessor", SkeletonDungeonLegProcessor.INSTANCE)
+        .put("ZombieDungeonCubbyProcessor", ZombieDungeonCubbyProcessor.INSTANCE)
+        .put("ZombieDungeonStairProcessor", ZombieDungeonStairProcessor.INSTANCE)
+        .put("ZombieMobSpawnerProcessor", ZombieMobSpawnerProcessor.INSTANCE)
+        .put("ZombieTombstoneSpawnerProcessor", ZombieTombstoneSpawnerProcessor.INSTANCE)
+        .put("ZombieMainStairsProcessor", ZombieMainStairsProcessor.INSTANCE)
+        .put("ZombieRotProcessor", ZombieRotProcessor.INSTANCE)
+        .put("ZombieDungeonLegProcessor", ZombieDungeonLegProcessor.INSTANCE)
+        .put("ZombieDungeonFlowerPotProcessor", ZombieDungeonFlowerPotProcessor.INSTANCE)
+        .build();
+
+    @Param({
+        "WaterloggedProcessor", "MobSpawnerProcessor", "HeadProcessor", "NetherBlockProcessor",
+        "SmallDungeonCeilingPropProcessor", "SmallDungeonCeilingLampPropProcessor", "SmallDungeonBannerProcessor",
+        "SmallDungeonChestProcessor", "SmallDungeonCobblestoneProcessor", "SmallDungeonLegProcessor",
+        "SmallDungeonCeilingProcessor", "SmallDungeonOreProcessor",
+        "RuinedStoneBrickProcessor", "SkeletonMobSpawnerProcessor", "SkeletonDungeonLegProcessor",
+        "ZombieDungeonCubbyProcessor", "ZombieDungeonStairProcessor", "ZombieMobSpawnerProcessor",
+        "ZombieTombstoneSpawnerProcessor", "ZombieMainStairsProcessor", "ZombieRotProcessor",
+        "ZombieDungeonLegProcessor", "ZombieDungeonFlowerPotProcessor"
+    })
+    public String processor;
+
+    private StructureProcessor structureProcessor;
+    private StubSeedReader world;
+    private List<Template.BlockInfo> blocks;
+    private PlacementSettings placementSettings;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        HarnessBootstrap.init();
+        structureProcessor = PROCESSORS.get(processor);
+        world = new StubSeedReader(SEED, SURFACE_Y, Blocks.STONE.getDefaultState(), HarnessBootstrap.getPlains());
+        blocks = SyntheticTemplates.create(ORIGIN, TEMPLATE_SIZE, SEED);
+        placementSettings = new PlacementSettings();
+    }
+
+    /**
+     * Processors such as the leg processors write to the world, so start every invocation from flat terrain.
+     * The chest and banner processors read the dungeon context, which Template placement normally sets up.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        world.clear();
+        DungeonContext.initialize();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        DungeonContext.pop();
+    }
+
+    @Benchmark
+    public void process(Blackhole blackhole) {
+        for (Template.BlockInfo blockInfo : blocks) {
+            blackhole.consume(structureProcessor.process(world.getWorld(), ORIGIN, ORIGIN, blockInfo, blockInfo, placementSettings, null));
+        }
+    }
+}
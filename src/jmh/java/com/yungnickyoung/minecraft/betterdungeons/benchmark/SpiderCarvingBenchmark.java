@@ -0,0 +1,93 @@
+package com.yungnickyoung.minecraft.betterdungeons.benchmark;
+
+import com.yungnickyoung.minecraft.betterdungeons.harness.HarnessBootstrap;
+import com.yungnickyoung.minecraft.betterdungeons.harness.StubSeedReader;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece.SpiderDungeonBigTunnelPiece;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece.SpiderDungeonEggRoomPiece;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece.SpiderDungeonNestPiece;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.world.gen.feature.structure.StructurePiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places a single spider dungeon piece into every chunk it overlaps, on flat stone terrain.
+ * The piece and the world are rebuilt before each invocation, so every invocation carves the same blocks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpiderCarvingBenchmark {
+    private static final long SEED = 1234L;
+    private static final int SURFACE_Y = 64;
+    private static final BlockPos START_POS = new BlockPos(8, 30, 8);
+
+    @Param({"big_tunnel", "nest", "egg_room"})
+    public String piece;
+
+    private StubSeedReader world;
+    private StructurePiece structurePiece;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        HarnessBootstrap.init();
+        world = new StubSeedReader(SEED, SURFACE_Y, Blocks.STONE.getDefaultState(), HarnessBootstrap.getPlains());
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        world.clear();
+        structurePiece = createPiece();
+
+        // Sets the piece's random shape and bounds. Child pieces are discarded.
+        structurePiece.buildComponent(structurePiece, new ArrayList<>(), new Random(SEED));
+    }
+
+    @Benchmark
+    public boolean place() {
+        MutableBoundingBox bounds = structurePiece.getBoundingBox();
+        Random random = new Random(SEED);
+        boolean placed = true;
+        for (int chunkX = bounds.minX >> 4; chunkX <= bounds.maxX >> 4; chunkX++) {
+            for (int chunkZ = bounds.minZ >> 4; chunkZ <= bounds.maxZ >> 4; chunkZ++) {
+                ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
+                MutableBoundingBox chunkBox = new MutableBoundingBox(chunkPos.getXStart(), 0, chunkPos.getZStart(), chunkPos.getXEnd(), 255, chunkPos.getZEnd());
+                placed &= structurePiece.func_230383_a_(world.getWorld(), null, null, random, chunkBox, chunkPos, START_POS);
+            }
+        }
+        return placed;
+    }
+
+    private StructurePiece createPiece() {
+        switch (piece) {
+            case "big_tunnel":
+                return new SpiderDungeonBigTunnelPiece(START_POS, 0);
+            case "nest":
+                return new SpiderDungeonNestPiece(START_POS, 0);
+            case "egg_room":
+                return new SpiderDungeonEggRoomPiece(START_POS, 0);
+            default:
+                throw new IllegalArgumentException("Unknown piece " + piece);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.yungnickyoung.minecraft.betterdungeons.benchmark;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.feature.template.Template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic template block streams resembling our dungeon templates:
+ * mostly structural blocks, with a sprinkling of the marker blocks our processors replace.
+ */
+public class SyntheticTemplates {
+    private static final BlockState[] COMMON_STATES = {
+        Blocks.STONE_BRICKS.getDefaultState(),
+        Blocks.MOSSY_STONE_BRICKS.getDefaultState(),
+        Blocks.CRACKED_STONE_BRICKS.getDefaultState(),
+        Blocks.COBBLESTONE.getDefaultState(),
+        Blocks.MOSSY_COBBLESTONE.getDefaultState(),
+        Blocks.COBBLESTONE_STAIRS.getDefaultState(),
+        Blocks.CAVE_AIR.getDefaultState(),
+        Blocks.CAVE_AIR.getDefaultState(),
+        Blocks.CAVE_AIR.getDefaultState()
+    };
+
+    private static final BlockState[] MARKER_STATES = {
+        Blocks.YELLOW_STAINED_GLASS.getDefaultState(),
+        Blocks.BLUE_STAINED_GLASS.getDefaultState(),
+        Blocks.MAGENTA_STAINED_GLASS.getDefaultState(),
+        Blocks.ORANGE_STAINED_GLASS.getDefaultState(),
+        Blocks.BLACK_STAINED_GLASS.getDefaultState(),
+        Blocks.BROWN_STAINED_GLASS.getDefaultState(),
+        Blocks.CYAN_STAINED_GLASS.getDefaultState(),
+        Blocks.CYAN_TERRACOTTA.getDefaultState(),
+        Blocks.PURPUR_SLAB.getDefaultState(),
+        Blocks.PRISMARINE_BRICK_SLAB.getDefaultState(),
+        Blocks.WARPED_STAIRS.getDefaultState(),
+        Blocks.RED_WALL_BANNER.getDefaultState(),
+        Blocks.SKELETON_SKULL.getDefaultState(),
+        Blocks.CHEST.getDefaultState(),
+        Blocks.SPAWNER.getDefaultState(),
+        Blocks.COAL_ORE.getDefaultState(),
+        Blocks.CHAIN.getDefaultState(),
+        Blocks.SOUL_LANTERN.getDefaultState(),
+        Blocks.SOUL_CAMPFIRE.getDefaultState(),
+        Blocks.SOUL_SAND.getDefaultState(),
+        Blocks.POTTED_CORNFLOWER.getDefaultState()
+    };
+
+    /**
+     * Creates a cube of blocks with its bottom corner at the given origin, in template order (y, z, x).
+     * Every 16th block is a marker block. Block entities get empty NBT.
+     */
+    public static List<Template.BlockInfo> create(BlockPos origin, int size, long seed) {
+        Random random = new Random(seed);
+        List<Template.BlockInfo> blocks = new ArrayList<>(size * size * size);
+        for (int y = 0; y < size; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    BlockState state = random.nextInt(16) == 0
+                        ? MARKER_STATES[random.nextInt(MARKER_STATES.length)]
+                        : COMMON_STATES[random.nextInt(COMMON_STATES.length)];
+                    blocks.add(new Template.BlockInfo(origin.add(x, y, z), state, state.hasTileEntity() ? createNbt() : null));
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static CompoundNBT createNbt() {
+        CompoundNBT nbt = new CompoundNBT();
+        nbt.put("SpawnPotentials", new ListNBT());
+        return nbt;
+    }
+}
@@ -1,9 +1,18 @@
 package com.yungnickyoung.minecraft.betterdungeons;
 
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModBenchmark;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModColumnIndex;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModCommands;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModCompat;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModConfig;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModCriteria;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModDormantSpawners;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModJigsawPools;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModLocationIndex;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructures;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModTemplates;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModThrottle;
 import net.minecraftforge.fml.common.Mod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,5 +34,14 @@ public class BetterDungeons {
         BDModProcessors.init();
         BDModStructures.init();
         BDModCompat.init();
+        BDModLocationIndex.init();
+        BDModCommands.init();
+        BDModBenchmark.init();
+        BDModThrottle.init();
+        BDModDormantSpawners.init();
+        BDModColumnIndex.init();
+        BDModCriteria.init();
+        BDModJigsawPools.init();
+        BDModTemplates.init();
     }
 }
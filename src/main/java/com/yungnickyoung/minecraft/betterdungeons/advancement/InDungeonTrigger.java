@@ -0,0 +1,76 @@
+package com.yungnickyoung.minecraft.betterdungeons.advancement;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.world.StructureColumnIndex;
+import mcp.MethodsReturnNonnullByDefault;
+import net.minecraft.advancements.criterion.AbstractCriterionTrigger;
+import net.minecraft.advancements.criterion.CriterionInstance;
+import net.minecraft.advancements.criterion.EntityPredicate;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.loot.ConditionArrayParser;
+import net.minecraft.loot.ConditionArraySerializer;
+import net.minecraft.util.JSONUtils;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Triggered while a player is inside a piece of a given dungeon, e.g.
+ * <pre>{"trigger": "betterdungeons:in_dungeon", "conditions": {"dungeon": "betterdungeons:zombie_dungeon"}}</pre>
+ *
+ * Equivalent to the vanilla location trigger with a feature condition, but membership is answered by the
+ * {@link StructureColumnIndex} instead of resolving structure references and piece boxes on every check.
+ */
+@MethodsReturnNonnullByDefault
+public class InDungeonTrigger extends AbstractCriterionTrigger<InDungeonTrigger.Instance> {
+    private static final ResourceLocation ID = new ResourceLocation(BetterDungeons.MOD_ID, "in_dungeon");
+
+    @Override
+    public ResourceLocation getId() {
+        return ID;
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    protected Instance deserializeTrigger(JsonObject json, EntityPredicate.AndPredicate entityPredicate, ConditionArrayParser conditionsParser) {
+        ResourceLocation dungeon = new ResourceLocation(JSONUtils.getString(json, "dungeon"));
+        if (!ForgeRegistries.STRUCTURE_FEATURES.containsKey(dungeon)) {
+            throw new JsonSyntaxException("Unknown dungeon '" + dungeon + "'");
+        }
+        return new Instance(entityPredicate, dungeon, ForgeRegistries.STRUCTURE_FEATURES.getValue(dungeon));
+    }
+
+    /**
+     * Checks the player's position against the dungeons of their unfinished criteria.
+     * Players without any unfinished criteria cost nothing.
+     */
+    public void trigger(ServerPlayerEntity player) {
+        ServerWorld world = player.getServerWorld();
+        BlockPos pos = player.getPosition();
+        this.triggerListeners(player, instance -> StructureColumnIndex.getStructureStart(world, world.func_241112_a_(), pos, instance.structure).isValid());
+    }
+
+    public static class Instance extends CriterionInstance {
+        private final ResourceLocation dungeon;
+        private final Structure<?> structure;
+
+        public Instance(EntityPredicate.AndPredicate entityPredicate, ResourceLocation dungeon, Structure<?> structure) {
+            super(ID, entityPredicate);
+            this.dungeon = dungeon;
+            this.structure = structure;
+        }
+
+        @Override
+        public JsonObject serialize(ConditionArraySerializer conditions) {
+            JsonObject json = super.serialize(conditions);
+            json.addProperty("dungeon", this.dungeon.toString());
+            return json;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.WorldgenBenchmark;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+
+/**
+ * /betterdungeons benchmark <size>
+ * /betterdungeons benchmark cancel
+ *
+ * Force-generates fresh size×size chunk regions in the current dimension, first with every dungeon type
+ * and then with each type switched off, and reports generation throughput, time spent in our structures,
+ * peak heap and allocation rate for each. This generates permanent chunks far from spawn,
+ * so it is meant for test worlds.
+ */
+public class BenchmarkCommand {
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        return Commands.literal("benchmark")
+            .then(Commands.literal("cancel")
+                .executes(BenchmarkCommand::cancel))
+            .then(Commands.argument("size", IntegerArgumentType.integer(1, 64))
+                .executes(BenchmarkCommand::start));
+    }
+
+    private static int start(CommandContext<CommandSource> ctx) {
+        CommandSource source = ctx.getSource();
+        if (WorldgenBenchmark.isRunning()) {
+            source.sendErrorMessage(new StringTextComponent("A worldgen benchmark is already running. Use /betterdungeons benchmark cancel to stop it."));
+            return 0;
+        }
+
+        if (!WorldgenBenchmark.start(source, source.getWorld(), IntegerArgumentType.getInteger(ctx, "size"))) {
+            source.sendErrorMessage(new StringTextComponent("No Better Dungeons are enabled in " + source.getWorld().getDimensionKey().getLocation()));
+            return 0;
+        }
+        return 1;
+    }
+
+    private static int cancel(CommandContext<CommandSource> ctx) {
+        if (!WorldgenBenchmark.cancel()) {
+            ctx.getSource().sendErrorMessage(new StringTextComponent("No worldgen benchmark is running"));
+            return 0;
+        }
+        ctx.getSource().sendFeedback(new StringTextComponent("Worldgen benchmark cancelled"), true);
+        return 1;
+    }
+}
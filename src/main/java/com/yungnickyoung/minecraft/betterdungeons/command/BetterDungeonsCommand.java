@@ -0,0 +1,20 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+
+/**
+ * Root of the /betterdungeons command tree. All subcommands require permission level 2.
+ */
+public class BetterDungeonsCommand {
+    public static void register(CommandDispatcher<CommandSource> dispatcher) {
+        dispatcher.register(Commands.literal("betterdungeons")
+            .requires(source -> source.hasPermissionLevel(2))
+            .then(PlanCommand.register())
+            .then(JigsawAssemblyLimitCommand.register())
+            .then(TemplatesCommand.register())
+            .then(StatsCommand.register())
+            .then(BenchmarkCommand.register()));
+    }
+}
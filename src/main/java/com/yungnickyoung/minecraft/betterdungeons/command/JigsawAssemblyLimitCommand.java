@@ -0,0 +1,22 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.yungnickyoung.minecraft.betterdungeons.world.JigsawAssemblyLimit;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+
+/**
+ * /betterdungeons jigsawlimit
+ *
+ * Reports the state and timings of the jigsaw assembly limit.
+ */
+public class JigsawAssemblyLimitCommand {
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        return Commands.literal("jigsawlimit")
+            .executes(ctx -> {
+                ctx.getSource().sendFeedback(new StringTextComponent(JigsawAssemblyLimit.describe()), false);
+                return 1;
+            });
+    }
+}
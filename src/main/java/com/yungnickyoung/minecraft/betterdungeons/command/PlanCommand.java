@@ -0,0 +1,160 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructures;
+import com.yungnickyoung.minecraft.betterdungeons.world.TerrainPrecheck;
+import com.yungnickyoung.minecraft.betterdungeons.world.planner.DungeonPlacementPlanner;
+import com.yungnickyoung.minecraft.betterdungeons.world.planner.DungeonPlanWriter;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.command.arguments.ColumnPosArgument;
+import net.minecraft.command.arguments.DimensionArgument;
+import net.minecraft.util.math.ColumnPos;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.world.biome.provider.BiomeProvider;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * /betterdungeons plan <dimension> <from> <to> [csv|nbt] [seed]
+ *
+ * Writes the candidate start chunks of every Better Dungeons type in the given area to a file
+ * in the betterdungeons/plans folder, without generating any chunks.
+ * The scan runs off the server thread.
+ */
+public class PlanCommand {
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        ArgumentBuilder<CommandSource, ?> toArg = Commands.argument("to", ColumnPosArgument.columnPos())
+            .executes(ctx -> execute(ctx, DungeonPlanWriter.Format.CSV, null));
+
+        for (DungeonPlanWriter.Format format : DungeonPlanWriter.Format.values()) {
+            toArg.then(Commands.literal(format.getExtension())
+                .executes(ctx -> execute(ctx, format, null))
+                .then(Commands.argument("seed", LongArgumentType.longArg())
+                    .executes(ctx -> execute(ctx, format, LongArgumentType.getLong(ctx, "seed")))));
+        }
+
+        return Commands.literal("plan")
+            .then(Commands.argument("dimension", DimensionArgument.getDimension())
+                .then(Commands.argument("from", ColumnPosArgument.columnPos())
+                    .then(toArg)));
+    }
+
+    private static int execute(CommandContext<CommandSource> ctx, DungeonPlanWriter.Format format, Long seedArg) throws CommandSyntaxException {
+        CommandSource source = ctx.getSource();
+        ServerWorld world = DimensionArgument.getDimensionArgument(ctx, "dimension");
+        ColumnPos from = ColumnPosArgument.fromBlockPos(ctx, "from");
+        ColumnPos to = ColumnPosArgument.fromBlockPos(ctx, "to");
+
+        int minChunkX = Math.min(from.x, to.x) >> 4;
+        int minChunkZ = Math.min(from.z, to.z) >> 4;
+        int maxChunkX = Math.max(from.x, to.x) >> 4;
+        int maxChunkZ = Math.max(from.z, to.z) >> 4;
+
+        long seed = seedArg == null ? world.getSeed() : seedArg;
+
+        // The world's biome provider and terrain noise are bound to the world seed, so they can only be checked for that seed
+        boolean checkBiomes = seed == world.getSeed();
+
+        ChunkGenerator generator = world.getChunkProvider().getChunkGenerator();
+        BiomeProvider biomeProvider = generator.getBiomeProvider();
+        List<DungeonPlacementPlanner.Target> targets = createTargets(generator, checkBiomes);
+        if (targets.isEmpty()) {
+            source.sendErrorMessage(new StringTextComponent("No Better Dungeons are enabled in " + world.getDimensionKey().getLocation()));
+            return 0;
+        }
+
+        String fileName = String.format(Locale.ROOT, "%s_%d_%d.%s",
+            world.getDimensionKey().getLocation().toString().replace(':', '_'),
+            seed,
+            System.currentTimeMillis(),
+            format.getExtension());
+        Path file = FMLPaths.GAMEDIR.get().resolve(BetterDungeons.MOD_ID).resolve("plans").resolve(fileName);
+
+        source.sendFeedback(new StringTextComponent(String.format("Planning dungeons in chunks [%d, %d] to [%d, %d]...", minChunkX, minChunkZ, maxChunkX, maxChunkZ)), true);
+        if (!checkBiomes) {
+            source.sendFeedback(new StringTextComponent("Seed differs from the world seed. Biome and terrain checks will be skipped."), true);
+        }
+
+        CompletableFuture.supplyAsync(() -> {
+            long startTime = System.nanoTime();
+            int count;
+            try (DungeonPlanWriter writer = DungeonPlanWriter.open(file, format, seed)) {
+                // Candidates are written as each tile of regions is planned
+                for (DungeonPlacementPlanner.Target target : targets) {
+                    DungeonPlacementPlanner.plan(seed, biomeProvider, target, minChunkX, minChunkZ, maxChunkX, maxChunkZ, writer::write);
+                }
+                count = writer.getCount();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return String.format("Wrote %d candidate dungeons to %s in %d ms", count, file, (System.nanoTime() - startTime) / 1000000);
+        }).whenComplete((message, throwable) -> source.getServer().execute(() -> {
+            if (throwable != null) {
+                BetterDungeons.LOGGER.error("Unable to write dungeon plan to {}", file, throwable);
+                source.sendErrorMessage(new StringTextComponent("Unable to write dungeon plan. See the log for details."));
+            } else {
+                source.sendFeedback(new StringTextComponent(message), true);
+            }
+        }));
+
+        return 1;
+    }
+
+    /**
+     * Collects the dungeon types placed by the given chunk generator.
+     * Types disabled or not whitelisted in this dimension have no separation settings and are skipped.
+     */
+    private static List<DungeonPlacementPlanner.Target> createTargets(ChunkGenerator generator, boolean checkBiomes) {
+        Map<String, Structure<?>> structures = new LinkedHashMap<>();
+        structures.put("small_dungeon", BDModStructures.SMALL_DUNGEON.get());
+        structures.put("spider_dungeon", BDModStructures.SPIDER_DUNGEON.get());
+        structures.put("skeleton_dungeon", BDModStructures.SKELETON_DUNGEON.get());
+        structures.put("zombie_dungeon", BDModStructures.ZOMBIE_DUNGEON.get());
+
+        BDConfigSnapshot config = BDConfigSnapshot.get();
+        Map<String, DungeonPlacementPlanner.TerrainCheck> terrainChecks = new HashMap<>();
+        if (checkBiomes) {
+            terrainChecks.put("small_dungeon", createTerrainCheck(generator, config.smallDungeonMinY, config.smallDungeonMaxY));
+            terrainChecks.put("skeleton_dungeon", createTerrainCheck(generator, config.skeletonDungeonStartMinY, config.skeletonDungeonStartMaxY));
+            terrainChecks.put("zombie_dungeon", createTerrainCheck(generator, config.zombieDungeonStartMinY, config.zombieDungeonStartMaxY));
+        }
+
+        List<DungeonPlacementPlanner.Target> targets = new ArrayList<>();
+        structures.forEach((name, structure) -> {
+            StructureSeparationSettings separationSettings = generator.func_235957_b_().func_236197_a_(structure);
+            if (separationSettings != null) {
+                // Biome blacklists are applied when biomes load, so the biome's structure list already reflects them
+                targets.add(new DungeonPlacementPlanner.Target(name, separationSettings,
+                    biome -> !checkBiomes || biome.getGenerationSettings().hasStructure(structure),
+                    terrainChecks.getOrDefault(name, DungeonPlacementPlanner.TerrainCheck.NONE)));
+            }
+        });
+        return targets;
+    }
+
+    /**
+     * Rejects candidates whose start would be rejected by the terrain precheck, for a dungeon type starting between the given heights.
+     * Planned candidates aren't counted in the generation metrics.
+     */
+    private static DungeonPlacementPlanner.TerrainCheck createTerrainCheck(ChunkGenerator generator, int minY, int maxY) {
+        return (chunkX, chunkZ, random) -> TerrainPrecheck.chooseStartY(generator, chunkX, chunkZ, minY, maxY, random, null) != TerrainPrecheck.REJECTED;
+    }
+}
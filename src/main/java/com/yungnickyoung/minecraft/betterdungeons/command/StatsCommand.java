@@ -0,0 +1,73 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * /betterdungeons stats [enable|disable|reset|dump]
+ *
+ * Reports the dungeon generation metrics collected so far, toggles collection,
+ * or dumps every histogram to a JSON file in the betterdungeons/stats folder.
+ */
+public class StatsCommand {
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        return Commands.literal("stats")
+            .executes(StatsCommand::report)
+            .then(Commands.literal("enable")
+                .executes(ctx -> setEnabled(ctx, true)))
+            .then(Commands.literal("disable")
+                .executes(ctx -> setEnabled(ctx, false)))
+            .then(Commands.literal("reset")
+                .executes(ctx -> {
+                    GenerationMetrics.reset();
+                    ctx.getSource().sendFeedback(new StringTextComponent("Generation metrics reset"), true);
+                    return 1;
+                }))
+            .then(Commands.literal("dump")
+                .executes(StatsCommand::dump));
+    }
+
+    private static int report(CommandContext<CommandSource> ctx) {
+        for (String line : GenerationMetrics.describe()) {
+            ctx.getSource().sendFeedback(new StringTextComponent(line), false);
+        }
+        return 1;
+    }
+
+    private static int setEnabled(CommandContext<CommandSource> ctx, boolean enable) {
+        GenerationMetrics.setEnabled(enable);
+        ctx.getSource().sendFeedback(new StringTextComponent("Generation metrics " + (enable ? "enabled" : "disabled")), true);
+        return 1;
+    }
+
+    private static int dump(CommandContext<CommandSource> ctx) {
+        CommandSource source = ctx.getSource();
+        Path file = FMLPaths.GAMEDIR.get().resolve(BetterDungeons.MOD_ID).resolve("stats").resolve("stats_" + System.currentTimeMillis() + ".json");
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                GenerationMetrics.dump(file);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }).whenComplete((result, throwable) -> source.getServer().execute(() -> {
+            if (throwable != null) {
+                BetterDungeons.LOGGER.error("Unable to write generation metrics to {}", file, throwable);
+                source.sendErrorMessage(new StringTextComponent("Unable to write generation metrics. See the log for details."));
+            } else {
+                source.sendFeedback(new StringTextComponent("Wrote generation metrics to " + file), true);
+            }
+        }));
+
+        return 1;
+    }
+}
@@ -0,0 +1,24 @@
+package com.yungnickyoung.minecraft.betterdungeons.command;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.yungnickyoung.minecraft.betterdungeons.world.template.CompactTemplateStore;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.StringTextComponent;
+
+/**
+ * /betterdungeons templates
+ *
+ * Compares memory use and iteration speed of the compact templates loaded so far against vanilla block lists.
+ */
+public class TemplatesCommand {
+    private static final int ITERATIONS = 100;
+
+    public static ArgumentBuilder<CommandSource, ?> register() {
+        return Commands.literal("templates")
+            .executes(ctx -> {
+                ctx.getSource().sendFeedback(new StringTextComponent(CompactTemplateStore.describe(ITERATIONS)), false);
+                return 1;
+            });
+    }
+}
@@ -11,6 +11,7 @@ public class BDConfig {
     public static final ConfigSkeletonDungeon skeletonDungeons;
     public static final ConfigZombieDungeon zombieDungeons;
     public static final ConfigSmallDungeons smallDungeons;
+    public static final ConfigPerformance performance;
 
     static {
         BUILDER.push("YUNG's Better Dungeons");
@@ -20,6 +21,7 @@ public class BDConfig {
         skeletonDungeons = new ConfigSkeletonDungeon(BUILDER);
         zombieDungeons = new ConfigZombieDungeon(BUILDER);
         smallDungeons = new ConfigSmallDungeons(BUILDER);
+        performance = new ConfigPerformance(BUILDER);
 
         BUILDER.pop();
         SPEC = BUILDER.build();
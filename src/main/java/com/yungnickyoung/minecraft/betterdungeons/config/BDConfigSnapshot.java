@@ -0,0 +1,101 @@
+package com.yungnickyoung.minecraft.betterdungeons.config;
+
+/**
+ * Immutable snapshot of the config values read during world generation.
+ * Processors, structure starts and pieces read these plain fields instead of calling
+ * ForgeConfigSpec.ConfigValue#get on every block.
+ *
+ * A new snapshot is built and published every time the config is loaded or reloaded.
+ */
+public final class BDConfigSnapshot {
+    private static volatile BDConfigSnapshot current;
+
+    // General
+    public final boolean enableHeads;
+    public final boolean enableNetherBlocks;
+
+    // Spider dungeons
+    public final int spiderDungeonStartMinY;
+    public final int spiderDungeonStartMaxY;
+
+    // Skeleton dungeons
+    public final int skeletonDungeonStartMinY;
+    public final int skeletonDungeonStartMaxY;
+
+    // Zombie dungeons
+    public final int zombieDungeonStartMinY;
+    public final int zombieDungeonStartMaxY;
+    public final int zombieDungeonMaxSurfaceStaircaseLength;
+
+    // Small dungeons
+    public final int smallDungeonMinY;
+    public final int smallDungeonMaxY;
+    public final int bannerMaxCount;
+    public final int chestMinCount;
+    public final int chestMaxCount;
+    public final boolean enableOreProps;
+
+    // Performance
+    public final boolean enableJigsawAssemblyLimit;
+    public final int maxConcurrentJigsawAssemblies;
+    public final boolean enableTemplatePreload;
+    public final boolean enableCompactTemplates;
+    public final boolean enableTemplateBundle;
+    public final boolean enableGenerationMetrics;
+    public final boolean enableAdaptiveThrottling;
+    public final int adaptiveThrottlingTickBudget;
+    public final boolean enableDormantSpawners;
+    public final boolean enableTerrainPrecheck;
+
+    private BDConfigSnapshot() {
+        this.enableHeads = BDConfig.general.enableHeads.get();
+        this.enableNetherBlocks = BDConfig.general.enableNetherBlocks.get();
+
+        this.spiderDungeonStartMinY = BDConfig.spiderDungeons.spiderDungeonStartMinY.get();
+        this.spiderDungeonStartMaxY = BDConfig.spiderDungeons.spiderDungeonStartMaxY.get();
+
+        this.skeletonDungeonStartMinY = BDConfig.skeletonDungeons.skeletonDungeonStartMinY.get();
+        this.skeletonDungeonStartMaxY = BDConfig.skeletonDungeons.skeletonDungeonStartMaxY.get();
+
+        this.zombieDungeonStartMinY = BDConfig.zombieDungeons.zombieDungeonStartMinY.get();
+        this.zombieDungeonStartMaxY = BDConfig.zombieDungeons.zombieDungeonStartMaxY.get();
+        this.zombieDungeonMaxSurfaceStaircaseLength = BDConfig.zombieDungeons.zombieDungeonMaxSurfaceStaircaseLength.get();
+
+        this.smallDungeonMinY = BDConfig.smallDungeons.smallDungeonMinY.get();
+        this.smallDungeonMaxY = BDConfig.smallDungeons.smallDungeonMaxY.get();
+        this.bannerMaxCount = BDConfig.smallDungeons.bannerMaxCount.get();
+        this.chestMinCount = BDConfig.smallDungeons.chestMinCount.get();
+        this.chestMaxCount = BDConfig.smallDungeons.chestMaxCount.get();
+        this.enableOreProps = BDConfig.smallDungeons.enableOreProps.get();
+
+        this.enableJigsawAssemblyLimit = BDConfig.performance.enableJigsawAssemblyLimit.get();
+        this.maxConcurrentJigsawAssemblies = BDConfig.performance.maxConcurrentJigsawAssemblies.get();
+        this.enableTemplatePreload = BDConfig.performance.enableTemplatePreload.get();
+        this.enableCompactTemplates = BDConfig.performance.enableCompactTemplates.get();
+        this.enableTemplateBundle = BDConfig.performance.enableTemplateBundle.get();
+        this.enableGenerationMetrics = BDConfig.performance.enableGenerationMetrics.get();
+        this.enableAdaptiveThrottling = BDConfig.performance.enableAdaptiveThrottling.get();
+        this.adaptiveThrottlingTickBudget = BDConfig.performance.adaptiveThrottlingTickBudget.get();
+        this.enableDormantSpawners = BDConfig.performance.enableDormantSpawners.get();
+        this.enableTerrainPrecheck = BDConfig.performance.enableTerrainPrecheck.get();
+    }
+
+    /**
+     * Returns the most recently published snapshot.
+     * If the config event has not fired yet, a snapshot is built from the current config values.
+     */
+    public static BDConfigSnapshot get() {
+        BDConfigSnapshot snapshot = current;
+        return snapshot == null ? rebuild() : snapshot;
+    }
+
+    /**
+     * Reads every value from the config spec and atomically publishes the new snapshot.
+     * Should be called after the config has been loaded and validated.
+     */
+    public static BDConfigSnapshot rebuild() {
+        BDConfigSnapshot snapshot = new BDConfigSnapshot();
+        current = snapshot;
+        return snapshot;
+    }
+}
@@ -0,0 +1,114 @@
+package com.yungnickyoung.minecraft.betterdungeons.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class ConfigPerformance {
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableJigsawAssemblyLimit;
+    public final ForgeConfigSpec.ConfigValue<Integer> maxConcurrentJigsawAssemblies;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableTemplatePreload;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableCompactTemplates;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableTemplateBundle;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableGenerationMetrics;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableAdaptiveThrottling;
+    public final ForgeConfigSpec.ConfigValue<Integer> adaptiveThrottlingTickBudget;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableDormantSpawners;
+    public final ForgeConfigSpec.ConfigValue<Boolean> enableTerrainPrecheck;
+
+    public ConfigPerformance(final ForgeConfigSpec.Builder BUILDER) {
+        BUILDER
+            .comment(
+                "##########################################################################################################\n" +
+                "# Performance settings. Only change these if you know what you are doing.\n" +
+                "##########################################################################################################")
+            .push("Performance");
+
+        enableJigsawAssemblyLimit = BUILDER
+            .comment(
+                " Whether or not to limit how many Small, Skeleton and Zombie Dungeon layouts are assembled at once.\n" +
+                " This can smooth out CPU spikes on servers that pre-generate many chunks in parallel.\n" +
+                " Generation threads beyond the limit wait for a running assembly to finish. Generated dungeons are identical either way.\n" +
+                " Default: false")
+            .worldRestart()
+            .define("Enable Jigsaw Assembly Limit", false);
+
+        maxConcurrentJigsawAssemblies = BUILDER
+            .comment(
+                " The maximum number of dungeon layouts assembled at once.\n" +
+                " Only used if the jigsaw assembly limit is enabled.\n" +
+                " Default: 2")
+            .worldRestart()
+            .defineInRange("Max Concurrent Jigsaw Assemblies", 2, 1, 64);
+
+        enableTemplatePreload = BUILDER
+            .comment(
+                " Whether or not all Better Dungeons structure templates should be loaded in parallel when the server starts.\n" +
+                " Otherwise, each template is loaded the first time a dungeon needs it, during world generation.\n" +
+                " Load times and retained memory are written to the log.\n" +
+                " Default: false")
+            .worldRestart()
+            .define("Preload Templates", false);
+
+        enableCompactTemplates = BUILDER
+            .comment(
+                " Whether or not Better Dungeons structure templates should be kept in a compact form in memory.\n" +
+                " This greatly reduces the memory used by loaded templates, at the cost of a few short-lived objects\n" +
+                " each time a template is placed. Use /betterdungeons templates to compare against vanilla.\n" +
+                " Default: false")
+            .worldRestart()
+            .define("Compact Templates", false);
+
+        enableTemplateBundle = BUILDER
+            .comment(
+                " Whether or not Better Dungeons structure templates should be read from the precompiled template bundle\n" +
+                " shipped in the mod jar, instead of decompressing each template's NBT file.\n" +
+                " Templates overridden by data packs are always loaded from the data pack.\n" +
+                " Default: false")
+            .worldRestart()
+            .define("Use Template Bundle", false);
+
+        enableGenerationMetrics = BUILDER
+            .comment(
+                " Whether or not Better Dungeons should collect timing metrics for dungeon generation,\n" +
+                " per dungeon type, spider dungeon piece and processor.\n" +
+                " View them with /betterdungeons stats, which can also toggle collection while the server is running.\n" +
+                " Default: false")
+            .define("Enable Generation Metrics", false);
+
+        enableAdaptiveThrottling = BUILDER
+            .comment(
+                " Whether or not heavy optional dungeon features should be skipped while the server is overloaded.\n" +
+                " While the average tick time is above the tick budget, Zombie Dungeons generate without their surface staircase\n" +
+                " and Spider Dungeons without their extra big tunnel. Normal generation resumes once the server recovers.\n" +
+                " Every skipped feature is logged and counted in /betterdungeons stats.\n" +
+                " Note that dungeons generated while throttled will differ from those generated from the same seed without throttling.\n" +
+                " Default: false")
+            .define("Enable Adaptive Throttling", false);
+
+        adaptiveThrottlingTickBudget = BUILDER
+            .comment(
+                " The average tick time, in milliseconds, above which adaptive throttling kicks in.\n" +
+                " Only used if adaptive throttling is enabled.\n" +
+                " Default: 50")
+            .defineInRange("Adaptive Throttling Tick Budget", 50, 10, 1000);
+
+        enableDormantSpawners = BUILDER
+            .comment(
+                " Whether or not mob spawners placed by Better Dungeons should stop ticking while no player is nearby.\n" +
+                " Vanilla spawners check for nearby players every tick, even when nobody is around.\n" +
+                " Dormant spawners are woken as soon as a player comes within a few chunks, and then behave exactly like vanilla spawners.\n" +
+                " Default: false")
+            .define("Enable Dormant Spawners", false);
+
+        enableTerrainPrecheck = BUILDER
+            .comment(
+                " Whether or not Small, Skeleton and Zombie Dungeons should check the terrain at their start chunk's corners\n" +
+                " before being assembled. Starting heights that would leave the dungeon poking out of low terrain or the ocean floor,\n" +
+                " or floating in open space, are re-rolled a few times, and the dungeon is skipped if no suitable height is found.\n" +
+                " Rejections are counted in /betterdungeons stats.\n" +
+                " Note that this changes where dungeons generate, compared to the same seed without the check.\n" +
+                " Default: false")
+            .define("Enable Terrain Precheck", false);
+
+        BUILDER.pop();
+    }
+}
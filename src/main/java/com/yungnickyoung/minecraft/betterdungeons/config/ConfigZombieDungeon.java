@@ -63,6 +63,7 @@ public class ConfigZombieDungeon {
                 " List of dimensions that will have Zombie Dungeons.\n" +
                 " List must be comma-separated values enclosed in square brackets.\n" +
                 " Entries must have the mod namespace included.\n" +
+                " Use \"modid:*\" to include every dimension from a mod.\n" +
                 " For example: \"[minecraft:overworld, minecraft:the_nether, undergarden:undergarden]\"\n" +
                 " Default: \"[minecraft:overworld]\"")
             .worldRestart()
@@ -73,6 +74,8 @@ public class ConfigZombieDungeon {
                 " List of biomes that will NOT have Zombie Dungeons.\n" +
                 " List must be comma-separated values enclosed in square brackets.\n" +
                 " Entries must have the mod namespace included.\n" +
+                " Use \"modid:*\" to match every biome from a mod, or \"#type\" to match a biome category or\n" +
+                " Forge biome dictionary type, e.g. \"#ocean\" or \"#mushroom\".\n" +
                 " For example: \"[minecraft:plains, byg:alps]\"\n" +
                 " Default: \"[minecraft:ocean, minecraft:frozen_ocean, minecraft:deep_ocean, minecraft:warm_ocean, minecraft:lukewarm_ocean, minecraft:cold_ocean, minecraft:deep_lukewarm_ocean, minecraft:deep_cold_ocean, minecraft:deep_frozen_ocean, minecraft:beach, minecraft:snowy_beach, minecraft:river, minecraft:frozen_river, minecraft:deep_warm_ocean]\"")
             .worldRestart()
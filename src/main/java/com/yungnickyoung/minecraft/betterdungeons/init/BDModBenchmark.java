@@ -0,0 +1,26 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.WorldgenBenchmark;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+
+public class BDModBenchmark {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModBenchmark::onServerTick);
+        MinecraftForge.EVENT_BUS.addListener(BDModBenchmark::onServerStopping);
+    }
+
+    private static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            WorldgenBenchmark.tick();
+        }
+    }
+
+    /**
+     * Restores the world's structure settings if a benchmark is still running, so they aren't saved switched off.
+     */
+    private static void onServerStopping(FMLServerStoppingEvent event) {
+        WorldgenBenchmark.cancel();
+    }
+}
@@ -0,0 +1,32 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.StructureColumnIndex;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+public class BDModColumnIndex {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModColumnIndex::onChunkUnload);
+        MinecraftForge.EVENT_BUS.addListener(BDModColumnIndex::onWorldUnload);
+        MinecraftForge.EVENT_BUS.addListener(BDModColumnIndex::onServerStopped);
+    }
+
+    private static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld() instanceof ServerWorld) {
+            StructureColumnIndex.onChunkUnload((ServerWorld) event.getWorld(), event.getChunk().getPos());
+        }
+    }
+
+    private static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerWorld) {
+            StructureColumnIndex.onWorldUnload((ServerWorld) event.getWorld());
+        }
+    }
+
+    private static void onServerStopped(FMLServerStoppedEvent event) {
+        StructureColumnIndex.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.command.BetterDungeonsCommand;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.RegisterCommandsEvent;
+
+public class BDModCommands {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModCommands::registerCommands);
+    }
+
+    private static void registerCommands(RegisterCommandsEvent event) {
+        BetterDungeonsCommand.register(event.getDispatcher());
+    }
+}
@@ -1,8 +1,10 @@
 package com.yungnickyoung.minecraft.betterdungeons.init;
 
-import com.google.common.collect.Lists;
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
 import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.util.ResourceLocationFilter;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.skeleton_dungeon.SkeletonDungeonStructure;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.small_dungeon.SmallDungeonStructure;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.SpiderDungeonStructure;
@@ -12,7 +14,7 @@ import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 
-import java.util.List;
+import java.util.Arrays;
 
 public class BDModConfig {
     public static void init() {
@@ -50,12 +52,18 @@ public class BDModConfig {
                 BDConfig.smallDungeons.smallDungeonSeparationDistance.set(10);
                 BDConfig.smallDungeons.smallDungeonDistanceVariation.set(6);
             }
+
+            // Publish the new snapshot used during world generation
+            BDConfigSnapshot snapshot = BDConfigSnapshot.rebuild();
+
+            // Generation metrics can also be toggled while the server is running, with /betterdungeons stats
+            GenerationMetrics.setEnabled(snapshot.enableGenerationMetrics);
         }
     }
 
-    private static List<String> createDimensionWhitelist(
+    private static ResourceLocationFilter createDimensionWhitelist(
         ForgeConfigSpec.ConfigValue<String> dimWhitelistConfig,
-        List<String> defaultList
+        ResourceLocationFilter defaultList
     ) {
         // Dimension whitelisting
         String rawStringofList = dimWhitelistConfig.get();
@@ -67,13 +75,13 @@ public class BDModConfig {
             return defaultList;
         }
 
-        // Parse string to list
-        return Lists.newArrayList(rawStringofList.substring(1, strLen - 1).split(",\\s*"));
+        // Parse string to filter
+        return ResourceLocationFilter.of(Arrays.asList(rawStringofList.substring(1, strLen - 1).split(",\\s*")));
     }
 
-    private static List<String> createBiomeBlacklist(
+    private static ResourceLocationFilter createBiomeBlacklist(
         ForgeConfigSpec.ConfigValue<String> biomeBlacklistConfig,
-        List<String> defaultList
+        ResourceLocationFilter defaultList
     ) {
         // Biome blacklisting
         String rawStringofList = biomeBlacklistConfig.get();
@@ -85,7 +93,7 @@ public class BDModConfig {
             return defaultList;
         }
 
-        // Parse string to list
-        return Lists.newArrayList(rawStringofList.substring(1, strLen - 1).split(",\\s*"));
+        // Parse string to filter
+        return ResourceLocationFilter.of(Arrays.asList(rawStringofList.substring(1, strLen - 1).split(",\\s*")));
     }
 }
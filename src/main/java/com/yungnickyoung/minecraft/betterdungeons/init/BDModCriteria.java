@@ -0,0 +1,31 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.advancement.InDungeonTrigger;
+import net.minecraft.advancements.CriteriaTriggers;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+
+public class BDModCriteria {
+    public static final InDungeonTrigger IN_DUNGEON = new InDungeonTrigger();
+
+    public static void init() {
+        FMLJavaModLoadingContext.get().getModEventBus().addListener(BDModCriteria::commonSetup);
+        MinecraftForge.EVENT_BUS.addListener(BDModCriteria::onPlayerTick);
+    }
+
+    private static void commonSetup(FMLCommonSetupEvent event) {
+        event.enqueueWork(() -> CriteriaTriggers.register(IN_DUNGEON));
+    }
+
+    /**
+     * Checks each player once a second, like the vanilla location trigger.
+     */
+    private static void onPlayerTick(TickEvent.PlayerTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.player instanceof ServerPlayerEntity && event.player.ticksExisted % 20 == 0) {
+            IN_DUNGEON.trigger((ServerPlayerEntity) event.player);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+public class BDModDormantSpawners {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModDormantSpawners::onWorldTick);
+        MinecraftForge.EVENT_BUS.addListener(BDModDormantSpawners::onServerStopped);
+    }
+
+    /**
+     * Updates which spawners are dormant before the world's block entities tick.
+     */
+    private static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.START && event.world instanceof ServerWorld) {
+            DormantSpawnerIndex.update((ServerWorld) event.world);
+        }
+    }
+
+    private static void onServerStopped(FMLServerStoppedEvent event) {
+        DormantSpawnerIndex.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.JigsawPoolCache;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+public class BDModJigsawPools {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModJigsawPools::onServerStopped);
+    }
+
+    private static void onServerStopped(FMLServerStoppedEvent event) {
+        JigsawPoolCache.clear();
+    }
+}
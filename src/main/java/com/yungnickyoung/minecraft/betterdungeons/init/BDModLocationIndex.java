@@ -0,0 +1,47 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.world.DungeonLocationIndex;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+
+import java.util.Map;
+
+public class BDModLocationIndex {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModLocationIndex::onChunkLoad);
+        MinecraftForge.EVENT_BUS.addListener(BDModLocationIndex::onWorldTick);
+    }
+
+    /**
+     * Records the Better Dungeons starts held by each chunk as it is generated or loaded,
+     * and the spacing regions whose starts the chunk has decided.
+     * This also gradually fills the index for worlds created before the index existed.
+     */
+    private static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getWorld() instanceof ServerWorld)) return;
+        ServerWorld serverWorld = (ServerWorld) event.getWorld();
+        DungeonLocationIndex.enqueueSeen(serverWorld, event.getChunk());
+
+        for (Map.Entry<Structure<?>, StructureStart<?>> entry : event.getChunk().getStructureStarts().entrySet()) {
+            ResourceLocation structureName = entry.getKey().getRegistryName();
+            StructureStart<?> start = entry.getValue();
+            if (structureName == null || !structureName.getNamespace().equals(BetterDungeons.MOD_ID) || !start.isValid()) {
+                continue;
+            }
+
+            DungeonLocationIndex.enqueue(serverWorld.getDimensionKey(), structureName, start.getChunkPosX(), start.getChunkPosZ(), start.getBoundingBox());
+        }
+    }
+
+    private static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.world instanceof ServerWorld) {
+            DungeonLocationIndex.drain((ServerWorld) event.world);
+        }
+    }
+}
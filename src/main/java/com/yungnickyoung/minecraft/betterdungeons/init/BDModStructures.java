@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableMap;
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
 import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
 import com.yungnickyoung.minecraft.betterdungeons.mixin.ChunkGeneratorAccessor;
+import com.yungnickyoung.minecraft.betterdungeons.util.ResourceLocationFilter;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.skeleton_dungeon.SkeletonDungeonStructure;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.small_dungeon.SmallDungeonStructure;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.SpiderDungeonStructure;
@@ -34,7 +35,6 @@ import net.minecraftforge.registries.ForgeRegistries;
 import org.apache.logging.log4j.util.TriConsumer;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -135,12 +135,12 @@ public class BDModStructures {
             event.getGeneration().getFeatures(GenerationStage.Decoration.UNDERGROUND_STRUCTURES).removeIf(s -> s.get().feature.equals(Features.MONSTER_ROOM.feature));
 
         // Handler that adds the given structure if it is not blacklisted
-        TriConsumer<List<String>, Boolean, StructureFeature<?, ?>> blacklistHandler = (
-            List<String> blacklist,
+        TriConsumer<ResourceLocationFilter, Boolean, StructureFeature<?, ?>> blacklistHandler = (
+            ResourceLocationFilter blacklist,
             Boolean isDungeonEnabled,
             StructureFeature<?, ?> configuredStructure
         ) -> {
-            if (isDungeonEnabled && !blacklist.contains(event.getName().toString())) {
+            if (isDungeonEnabled && !blacklist.testBiome(event.getName(), event.getCategory())) {
                 event.getGeneration().getStructures().add(() -> configuredStructure);
             }
         };
@@ -169,11 +169,11 @@ public class BDModStructures {
 
             // We use a temp map because some mods handle immutable maps
             Map<Structure<?>, StructureSeparationSettings> tempMap = new HashMap<>(serverWorld.getChunkProvider().generator.func_235957_b_().func_236195_a_());
-            String dimensionName = serverWorld.getDimensionKey().getLocation().toString();
+            ResourceLocation dimensionName = serverWorld.getDimensionKey().getLocation();
 
             // Handler that adds the given structure if it is whitelisted; removes it if it is not
-            BiConsumer<List<String>, Structure<?>> whitelistHandler = (List<String> whitelist, Structure<?> structure) -> {
-                if (!whitelist.contains(dimensionName) || (serverWorld.getChunkProvider().getChunkGenerator() instanceof FlatChunkGenerator && serverWorld.getDimensionKey().equals(World.OVERWORLD))) {
+            BiConsumer<ResourceLocationFilter, Structure<?>> whitelistHandler = (ResourceLocationFilter whitelist, Structure<?> structure) -> {
+                if (!whitelist.test(dimensionName) || (serverWorld.getChunkProvider().getChunkGenerator() instanceof FlatChunkGenerator && serverWorld.getDimensionKey().equals(World.OVERWORLD))) {
                     tempMap.keySet().remove(structure);
                 } else {
                     tempMap.put(structure, DimensionStructuresSettings.field_236191_b_.get(structure));
@@ -0,0 +1,27 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.template.TemplateBundle;
+import com.yungnickyoung.minecraft.betterdungeons.world.template.TemplatePreloader;
+import net.minecraft.resources.IResourceManagerReloadListener;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.fml.event.server.FMLServerAboutToStartEvent;
+
+public class BDModTemplates {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModTemplates::addReloadListeners);
+        MinecraftForge.EVENT_BUS.addListener(BDModTemplates::serverAboutToStart);
+    }
+
+    private static void addReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new TemplatePreloader());
+        event.addListener((IResourceManagerReloadListener) TemplateBundle::setResourceManager);
+    }
+
+    /**
+     * Worlds have not been loaded yet at this point, so no world generation is using the TemplateManager.
+     */
+    private static void serverAboutToStart(FMLServerAboutToStartEvent event) {
+        TemplatePreloader.install(event.getServer().func_240792_aT_());
+    }
+}
@@ -0,0 +1,25 @@
+package com.yungnickyoung.minecraft.betterdungeons.init;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.GenerationThrottle;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+public class BDModThrottle {
+    public static void init() {
+        MinecraftForge.EVENT_BUS.addListener(BDModThrottle::onServerTick);
+    }
+
+    /**
+     * Samples the server's tick times once a second.
+     */
+    private static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server != null && server.getTickCounter() % 20 == 0) {
+            GenerationThrottle.update(server);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import net.minecraft.block.AbstractBlock;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Stores the Better Dungeons classification flags of each block state on the state itself.
+ */
+@Mixin(AbstractBlock.AbstractBlockState.class)
+public abstract class BlockStateClassificationMixin implements BlockClassification.Holder {
+    @Unique
+    private int betterdungeons_classification;
+
+    @Override
+    public int betterdungeons_getClassification() {
+        return this.betterdungeons_classification;
+    }
+
+    @Override
+    public void betterdungeons_setClassification(int classification) {
+        this.betterdungeons_classification = classification;
+    }
+}
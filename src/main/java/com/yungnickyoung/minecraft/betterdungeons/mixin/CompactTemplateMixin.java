@@ -0,0 +1,23 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.template.CompactTemplateStore;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.gen.feature.template.TemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+
+import java.util.function.Function;
+
+/**
+ * Hands each template loaded by the TemplateManager to the compact template store,
+ * before the template is put in the TemplateManager's cache.
+ */
+@Mixin(TemplateManager.class)
+public class CompactTemplateMixin {
+    @ModifyArg(method = "getTemplate", at = @At(value = "INVOKE", target = "Ljava/util/Map;computeIfAbsent(Ljava/lang/Object;Ljava/util/function/Function;)Ljava/lang/Object;"), index = 1)
+    private Function<ResourceLocation, Template> compactTemplate(Function<ResourceLocation, Template> loader) {
+        return templateLocation -> CompactTemplateStore.compact(templateLocation, loader.apply(templateLocation));
+    }
+}
@@ -0,0 +1,11 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import net.minecraft.world.gen.Heightmap;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(Heightmap.class)
+public interface HeightmapAccessor {
+    @Invoker("set")
+    void betterdungeons_set(int x, int z, int value);
+}
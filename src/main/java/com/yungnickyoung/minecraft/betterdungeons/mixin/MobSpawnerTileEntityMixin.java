@@ -0,0 +1,54 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import net.minecraft.tileentity.MobSpawnerTileEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityType;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Lets spawners placed by Better Dungeons skip their tick while dormant,
+ * and keeps the {@link DormantSpawnerIndex} up to date as they load and unload.
+ */
+@Mixin(MobSpawnerTileEntity.class)
+public abstract class MobSpawnerTileEntityMixin extends TileEntity implements DormantSpawnerIndex.Holder {
+    @Unique
+    private boolean betterdungeons_dormant;
+
+    public MobSpawnerTileEntityMixin(TileEntityType<?> tileEntityType) {
+        super(tileEntityType);
+    }
+
+    @Inject(method = "tick", at = @At(value = "HEAD"), cancellable = true)
+    private void skipDormantTick(CallbackInfo ci) {
+        if (this.betterdungeons_dormant) {
+            ci.cancel();
+        }
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        DormantSpawnerIndex.onSpawnerLoad((MobSpawnerTileEntity) (Object) this);
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        DormantSpawnerIndex.onSpawnerUnload((MobSpawnerTileEntity) (Object) this);
+    }
+
+    @Override
+    public boolean betterdungeons_isDormant() {
+        return this.betterdungeons_dormant;
+    }
+
+    @Override
+    public void betterdungeons_setDormant(boolean dormant) {
+        this.betterdungeons_dormant = dormant;
+    }
+}
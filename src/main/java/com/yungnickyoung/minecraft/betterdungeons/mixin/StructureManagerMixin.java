@@ -0,0 +1,37 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.StructureColumnIndex;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureManager;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+import net.minecraft.world.server.ServerWorld;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Answers "which start has a piece containing this position" for Better Dungeons structures from the
+ * {@link StructureColumnIndex}, as asked by natural mob spawning.
+ * Only the world's own structure manager on the server thread uses the index. Worldgen regions use their own managers.
+ */
+@Mixin(StructureManager.class)
+public abstract class StructureManagerMixin {
+    @Shadow
+    @Final
+    private IWorld world;
+
+    @Inject(method = "getStructureStart", at = @At(value = "HEAD"), cancellable = true)
+    private void getIndexedStructureStart(BlockPos pos, boolean insidePieces, Structure<?> structure, CallbackInfoReturnable<StructureStart<?>> cir) {
+        if (insidePieces && this.world instanceof ServerWorld && StructureColumnIndex.isIndexed(structure)) {
+            ServerWorld serverWorld = (ServerWorld) this.world;
+            if (serverWorld.getServer().isOnExecutionThread()) {
+                cir.setReturnValue(StructureColumnIndex.getStructureStart(serverWorld, (StructureManager) (Object) this, pos, structure));
+            }
+        }
+    }
+}
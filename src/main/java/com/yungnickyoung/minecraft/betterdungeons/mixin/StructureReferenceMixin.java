@@ -0,0 +1,32 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.SpiderDungeonStructure;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.world.ISeedReader;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.gen.feature.structure.StructureManager;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+/**
+ * Only references Spider Dungeon starts from chunks their pieces actually place blocks in.
+ * Vanilla references a start from every chunk its bounding box intersects, and then places it in each of them.
+ */
+@Mixin(ChunkGenerator.class)
+public class StructureReferenceMixin {
+    @Redirect(method = "func_235953_a_", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/gen/feature/structure/StructureStart;getBoundingBox()Lnet/minecraft/util/math/MutableBoundingBox;"))
+    private MutableBoundingBox getReferenceBoundingBox(StructureStart<?> structureStart, ISeedReader world, StructureManager structureManager, IChunk chunk) {
+        if (structureStart instanceof SpiderDungeonStructure.Start) {
+            ChunkPos chunkPos = chunk.getPos();
+            if (!((SpiderDungeonStructure.Start) structureStart).isInChunkFootprint(chunkPos.x, chunkPos.z)) {
+                // An inverted box, which intersects nothing
+                return MutableBoundingBox.getNewBoundingBox();
+            }
+        }
+        return structureStart.getBoundingBox();
+    }
+}
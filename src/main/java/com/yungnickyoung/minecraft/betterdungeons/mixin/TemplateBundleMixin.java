@@ -0,0 +1,37 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.template.CompactTemplateStore;
+import com.yungnickyoung.minecraft.betterdungeons.world.template.TemplateBundle;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.gen.feature.template.TemplateManager;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Map;
+
+/**
+ * Serves our templates from the memory-mapped template bundle when they aren't cached yet
+ * and aren't overridden by a data pack.
+ */
+@Mixin(TemplateManager.class)
+public class TemplateBundleMixin {
+    @Shadow
+    @Final
+    private Map<ResourceLocation, Template> templates;
+
+    @Inject(method = "getTemplate", at = @At(value = "HEAD"), cancellable = true)
+    private void loadFromBundle(ResourceLocation templateLocation, CallbackInfoReturnable<Template> cir) {
+        if (this.templates.containsKey(templateLocation)) return;
+
+        Template bundled = TemplateBundle.read(templateLocation);
+        if (bundled != null) {
+            // Returning early skips the compact template hook in getTemplate
+            cir.setReturnValue(this.templates.computeIfAbsent(templateLocation, key -> CompactTemplateStore.compact(key, bundled)));
+        }
+    }
+}
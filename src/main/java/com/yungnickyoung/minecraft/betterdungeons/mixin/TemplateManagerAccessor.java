@@ -0,0 +1,15 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.gen.feature.template.TemplateManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.Map;
+
+@Mixin(TemplateManager.class)
+public interface TemplateManagerAccessor {
+    @Accessor("templates")
+    Map<ResourceLocation, Template> betterdungeons_getTemplates();
+}
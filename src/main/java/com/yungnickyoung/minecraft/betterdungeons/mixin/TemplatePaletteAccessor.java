@@ -0,0 +1,18 @@
+package com.yungnickyoung.minecraft.betterdungeons.mixin;
+
+import net.minecraft.world.gen.feature.template.Template;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.List;
+
+@Mixin(Template.Palette.class)
+public interface TemplatePaletteAccessor {
+    @Accessor("blocks")
+    List<Template.BlockInfo> betterdungeons_getBlocks();
+
+    @Mutable
+    @Accessor("blocks")
+    void betterdungeons_setBlocks(List<Template.BlockInfo> blocks);
+}
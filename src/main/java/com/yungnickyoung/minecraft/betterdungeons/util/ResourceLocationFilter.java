@@ -0,0 +1,87 @@
+package com.yungnickyoung.minecraft.betterdungeons.util;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.biome.Biome;
+import net.minecraftforge.common.BiomeDictionary;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled set of ResourceLocation rules, parsed once from a config list.
+ * Supported entries:
+ *  - Exact ids, e.g. "minecraft:plains"
+ *  - Namespace wildcards, e.g. "byg:*"
+ *  - Tags, e.g. "#ocean". For biomes, tags match the biome's category or any of its Forge BiomeDictionary types.
+ *
+ * Results are cached per id, since the same biome or dimension is checked many times.
+ */
+public class ResourceLocationFilter {
+    private final Set<ResourceLocation> ids = new HashSet<>();
+    private final Set<String> namespaces = new HashSet<>();
+    private final Set<String> tags = new HashSet<>();
+    private final Map<ResourceLocation, Boolean> cache = new ConcurrentHashMap<>();
+
+    private ResourceLocationFilter() {
+    }
+
+    public static ResourceLocationFilter of(String... entries) {
+        ResourceLocationFilter filter = new ResourceLocationFilter();
+        for (String entry : entries) {
+            filter.addEntry(entry);
+        }
+        return filter;
+    }
+
+    public static ResourceLocationFilter of(Collection<String> entries) {
+        return of(entries.toArray(new String[0]));
+    }
+
+    private void addEntry(String rawEntry) {
+        String entry = rawEntry.trim().toLowerCase(Locale.ROOT);
+        if (entry.isEmpty()) return;
+
+        if (entry.startsWith("#")) {
+            this.tags.add(entry.substring(1));
+        } else if (entry.endsWith(":*")) {
+            this.namespaces.add(entry.substring(0, entry.length() - 2));
+        } else {
+            ResourceLocation id = ResourceLocation.tryCreate(entry);
+            if (id == null) {
+                BetterDungeons.LOGGER.error("Invalid resource location '{}' in config list. Ignoring...", rawEntry);
+            } else {
+                this.ids.add(id);
+            }
+        }
+    }
+
+    /**
+     * Tests an id against the exact and namespace rules.
+     * Used for dimensions, which have no tags.
+     */
+    public boolean test(ResourceLocation id) {
+        return cache.computeIfAbsent(id, key -> ids.contains(key) || namespaces.contains(key.getNamespace()));
+    }
+
+    /**
+     * Tests a biome against all rules, including its category and BiomeDictionary types.
+     */
+    public boolean testBiome(ResourceLocation id, Biome.Category category) {
+        return cache.computeIfAbsent(id, key -> {
+            if (ids.contains(key) || namespaces.contains(key.getNamespace())) return true;
+            if (tags.isEmpty()) return false;
+            if (tags.contains(category.getName())) return true;
+            for (BiomeDictionary.Type type : BiomeDictionary.getTypes(RegistryKey.getOrCreateKey(Registry.BIOME_KEY, key))) {
+                if (tags.contains(type.getName().toLowerCase(Locale.ROOT))) return true;
+            }
+            return false;
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.google.common.collect.Sets;
+import net.minecraft.block.AbstractSkullBlock;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.OreBlock;
+import net.minecraft.block.material.Material;
+
+import java.util.Set;
+
+/**
+ * Bit flags classifying block states for the checks made on nearly every block during dungeon generation,
+ * so that each check is a single field load and mask instead of a set lookup or a chain of comparisons.
+ *
+ * The flags of each state are computed the first time they are needed and then stored on the state itself
+ * (see {@link com.yungnickyoung.minecraft.betterdungeons.mixin.BlockStateClassificationMixin}).
+ * Flags only depend on the block and its material, which never change once blocks are registered.
+ */
+public class BlockClassification {
+    /**
+     * Blocks spider dungeon carving must not replace, such as other dungeons' spawners and chests.
+     */
+    public static final int CARVE_PROTECTED = 1;
+
+    /**
+     * Ore blocks, used as props in small dungeons.
+     */
+    public static final int ORE = 1 << 1;
+
+    /**
+     * Skulls and heads, on the floor or on a wall.
+     */
+    public static final int SKULL = 1 << 2;
+
+    /**
+     * Soul variants of blocks, which are swapped for overworld variants when nether blocks are disabled.
+     */
+    public static final int SOUL_VARIANT = 1 << 3;
+
+    /**
+     * Zombie dungeon blocks that rot away to cave air when placed in air.
+     */
+    public static final int ROT_CANDIDATE = 1 << 4;
+
+    /**
+     * Air and fluids, which support pillars extend down through until they reach solid ground.
+     */
+    public static final int SUPPORT_REPLACEABLE = 1 << 5;
+
+    /**
+     * Set on every computed classification, so that a stored value of zero means not computed yet.
+     */
+    private static final int COMPUTED = 1 << 31;
+
+    private static final Set<Block> CARVE_PROTECTED_BLOCKS = Sets.newHashSet(Blocks.DIAMOND_BLOCK, Blocks.WHITE_WOOL, Blocks.SPAWNER, Blocks.CHEST, Blocks.ACACIA_LEAVES, Blocks.BIRCH_LEAVES, Blocks.OAK_LEAVES, Blocks.DARK_OAK_LEAVES, Blocks.JUNGLE_LEAVES, Blocks.SPRUCE_LEAVES, Blocks.GRASS, Blocks.TALL_GRASS);
+    private static final Set<Block> SOUL_VARIANT_BLOCKS = Sets.newHashSet(Blocks.SOUL_SAND, Blocks.SOUL_SOIL, Blocks.SOUL_CAMPFIRE, Blocks.SOUL_LANTERN);
+    private static final Set<Block> ROT_CANDIDATE_BLOCKS = Sets.newHashSet(Blocks.COBBLESTONE, Blocks.CYAN_TERRACOTTA, Blocks.COBBLESTONE_STAIRS);
+
+    /**
+     * Returns whether the given state has any of the given flags.
+     */
+    public static boolean is(BlockState state, int flags) {
+        return (getFlags(state) & flags) != 0;
+    }
+
+    public static int getFlags(BlockState state) {
+        // States are only missing the stored flags when the mixin isn't applied, e.g. in benchmarks
+        if (!(state instanceof Holder)) {
+            return classify(state);
+        }
+
+        Holder holder = (Holder) state;
+        int flags = holder.betterdungeons_getClassification();
+        if (flags == 0) {
+            // Racing worldgen threads compute and store the same value, so no synchronization is needed
+            flags = classify(state);
+            holder.betterdungeons_setClassification(flags);
+        }
+        return flags;
+    }
+
+    private static int classify(BlockState state) {
+        Block block = state.getBlock();
+        Material material = state.getMaterial();
+
+        int flags = COMPUTED;
+        if (CARVE_PROTECTED_BLOCKS.contains(block)) flags |= CARVE_PROTECTED;
+        if (block instanceof OreBlock) flags |= ORE;
+        if (block instanceof AbstractSkullBlock) flags |= SKULL;
+        if (SOUL_VARIANT_BLOCKS.contains(block)) flags |= SOUL_VARIANT;
+        if (ROT_CANDIDATE_BLOCKS.contains(block)) flags |= ROT_CANDIDATE;
+        if (material == Material.AIR || material == Material.WATER || material == Material.LAVA) flags |= SUPPORT_REPLACEABLE;
+        return flags;
+    }
+
+    /**
+     * Implemented by block states, to store their classification.
+     */
+    public interface Holder {
+        int betterdungeons_getClassification();
+
+        void betterdungeons_setClassification(int classification);
+    }
+}
@@ -0,0 +1,174 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.mixin.HeightmapAccessor;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.world.ISeedReader;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.gen.WorldGenRegion;
+import net.minecraft.world.server.ServerWorld;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes many plain blocks into a single chunk being decorated, as spider dungeon carving does.
+ *
+ * Each write goes straight to the chunk section, and only records the highest written block of its column.
+ * {@link #flush} then brings the chunk's heightmaps up to date once per dirty column, instead of once per block.
+ * The final heightmaps are the same as after individual writes, since a column's height only depends on its final blocks.
+ *
+ * Chunks being decorated haven't been lit yet, so block writes don't schedule any light updates and
+ * the light engine computes the same light data either way. The writer falls back to individual
+ * {@link ISeedReader#setBlockState} calls for any chunk it can't write to directly, including chunks that have been lit.
+ *
+ * Only for blocks without block entities, fluids or light emission, that don't need post-processing.
+ * Not thread-safe, like the region it writes to.
+ */
+public class ChunkBulkWriter {
+    private final ISeedReader world;
+    private final MutableBoundingBox box;
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+    /**
+     * The chunk being written to directly, or null if writes fall back to the world.
+     */
+    @Nullable
+    private final ChunkPrimer chunk;
+    @Nullable
+    private final ServerWorld serverWorld;
+    private final List<Heightmap> heightmaps = new ArrayList<>();
+    private final List<Heightmap.Type> heightmapTypes = new ArrayList<>();
+
+    /**
+     * Highest written y of each column, in x | z << 4 order, or -1 if nothing was written.
+     */
+    private final int[] dirtyColumnTops = new int[256];
+    private boolean dirty;
+
+    /**
+     * Creates a writer for the given chunk. Blocks outside the given box are neither read nor written,
+     * just like {@link net.minecraft.world.gen.feature.structure.StructurePiece} reads and writes.
+     */
+    public ChunkBulkWriter(ISeedReader world, ChunkPos chunkPos, MutableBoundingBox box) {
+        this.world = world;
+        this.box = box;
+        Arrays.fill(this.dirtyColumnTops, -1);
+
+        IChunk chunk = world.getChunk(chunkPos.x, chunkPos.z);
+        boolean direct = world instanceof WorldGenRegion
+            && chunk instanceof ChunkPrimer
+            && !chunk.getStatus().isAtLeast(ChunkStatus.FEATURES);
+
+        if (direct) {
+            // The chunk updates these heightmaps on every write, so they must already exist for us to update them instead
+            EnumSet<Heightmap.Type> statusHeightmaps = chunk.getStatus().getHeightMaps();
+            for (Map.Entry<Heightmap.Type, Heightmap> entry : chunk.getHeightmaps()) {
+                if (statusHeightmaps.contains(entry.getKey())) {
+                    this.heightmapTypes.add(entry.getKey());
+                    this.heightmaps.add(entry.getValue());
+                }
+            }
+            direct = this.heightmapTypes.size() == statusHeightmaps.size();
+        }
+
+        this.chunk = direct ? (ChunkPrimer) chunk : null;
+        this.serverWorld = direct ? ((WorldGenRegion) world).getWorld() : null;
+    }
+
+    /**
+     * Returns the block at the given position, or air if it is outside the box.
+     */
+    public BlockState getBlockState(int x, int y, int z) {
+        this.mutable.setPos(x, y, z);
+        if (!this.box.isVecInside(this.mutable)) return Blocks.AIR.getDefaultState();
+        return this.chunk != null ? this.chunk.getBlockState(this.mutable) : this.world.getBlockState(this.mutable);
+    }
+
+    /**
+     * Sets the block at the given position, unless it is outside the box.
+     */
+    public void setBlockState(int x, int y, int z, BlockState state) {
+        this.mutable.setPos(x, y, z);
+        if (!this.box.isVecInside(this.mutable)) return;
+
+        if (this.chunk == null) {
+            this.world.setBlockState(this.mutable, state, 2);
+            return;
+        }
+
+        if (y < 0 || y >= 256) return;
+        if (this.chunk.getSections()[y >> 4] == Chunk.EMPTY_SECTION && state.isIn(Blocks.AIR)) return;
+
+        ChunkSection section = this.chunk.getSection(y >> 4);
+        BlockState oldState = section.setBlockState(x & 15, y & 15, z & 15, state);
+        if (oldState == state) return;
+
+        // Everything else the region and chunk would do for a single write
+        this.serverWorld.onBlockStateChange(this.mutable.toImmutable(), oldState, state);
+        if (oldState.hasTileEntity()) {
+            this.chunk.removeTileEntity(this.mutable);
+        }
+        if (state.blockNeedsPostProcessing(this.world, this.mutable)) {
+            this.chunk.markBlockForPostprocessing(this.mutable);
+        }
+
+        int column = (x & 15) | (z & 15) << 4;
+        if (y > this.dirtyColumnTops[column]) {
+            this.dirtyColumnTops[column] = y;
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Updates the chunk's heightmaps for every column written since the last flush.
+     * Must be called before anything else reads the chunk's heightmaps or writes to the chunk.
+     */
+    public void flush() {
+        if (!this.dirty) return;
+
+        for (int column = 0; column < 256; column++) {
+            int top = this.dirtyColumnTops[column];
+            if (top < 0) continue;
+
+            int x = column & 15;
+            int z = column >> 4;
+            for (int i = 0; i < this.heightmaps.size(); i++) {
+                updateColumn(this.heightmaps.get(i), this.heightmapTypes.get(i), x, z, top);
+            }
+            this.dirtyColumnTops[column] = -1;
+        }
+        this.dirty = false;
+    }
+
+    /**
+     * Recomputes a column's height after writes up to the given y.
+     * Writes more than one block below the previous height can't change it, since the block right below the height is untouched.
+     */
+    private void updateColumn(Heightmap heightmap, Heightmap.Type type, int x, int z, int top) {
+        int height = heightmap.getHeight(x, z);
+        if (top < height - 1) return;
+
+        // Everything above both the previous height and the highest write is still non-blocking
+        for (int y = Math.max(top, height - 1); y >= 0; y--) {
+            this.mutable.setPos(x, y, z);
+            if (type.getHeightLimitPredicate().test(this.chunk.getBlockState(this.mutable))) {
+                ((HeightmapAccessor) heightmap).betterdungeons_set(x, z, y + 1);
+                return;
+            }
+        }
+        ((HeightmapAccessor) heightmap).betterdungeons_set(x, z, 0);
+    }
+}
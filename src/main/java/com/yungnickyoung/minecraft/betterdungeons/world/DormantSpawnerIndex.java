@@ -0,0 +1,216 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.tileentity.MobSpawnerTileEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-dimension index of loaded mob spawners placed by Better Dungeons, bucketed by chunk.
+ *
+ * A vanilla spawner checks for nearby players every tick, and does nothing else until one is in range.
+ * While dormant spawners are enabled, the spawners in this index skip their tick entirely unless a player
+ * is within {@link #WAKE_RADIUS} chunks. Players are tracked per chunk, so spawners are only revisited
+ * when a player crosses a chunk border.
+ *
+ * The wake radius is larger than the activation range of every indexed spawner, so a spawner is always awake
+ * before a player can activate it. Spawners with a larger activation range are never made dormant.
+ *
+ * All methods must be called on the server thread.
+ */
+public class DormantSpawnerIndex {
+    /**
+     * Key of the flag in a spawner's persistent Forge data marking it as placed by Better Dungeons.
+     */
+    private static final String DUNGEON_SPAWNER = BetterDungeons.MOD_ID + "_spawner";
+
+    /**
+     * Chunk radius around each player in which indexed spawners are awake.
+     */
+    private static final int WAKE_RADIUS = 3;
+
+    /**
+     * Largest activation range for which a player outside the wake radius is always out of range,
+     * with a chunk to spare for movement between updates.
+     */
+    private static final int MAX_DORMANT_RANGE = (WAKE_RADIUS - 1) * 16;
+
+    private static final Map<RegistryKey<World>, DormantSpawnerIndex> INDICES = new HashMap<>();
+
+    private final Long2ObjectMap<List<MobSpawnerTileEntity>> spawnersByChunk = new Long2ObjectOpenHashMap<>();
+    private LongSet playerChunks = new LongOpenHashSet();
+    private LongSet awakeChunks = new LongOpenHashSet();
+
+    /**
+     * Marks the block entity NBT of a spawner being placed from a template as placed by Better Dungeons.
+     */
+    public static void markDungeonSpawner(CompoundNBT blockEntityNBT) {
+        CompoundNBT forgeData = blockEntityNBT.getCompound("ForgeData");
+        forgeData.putBoolean(DUNGEON_SPAWNER, true);
+        blockEntityNBT.put("ForgeData", forgeData);
+    }
+
+    /**
+     * Marks a spawner placed directly into the world as placed by Better Dungeons.
+     */
+    public static void markDungeonSpawner(TileEntity spawnerTileEntity) {
+        spawnerTileEntity.getTileData().putBoolean(DUNGEON_SPAWNER, true);
+    }
+
+    /**
+     * Adds a spawner that was just added to a world to the world's index,
+     * if it was placed by Better Dungeons and dormant spawners are enabled.
+     */
+    public static void onSpawnerLoad(MobSpawnerTileEntity spawner) {
+        World world = spawner.getWorld();
+        if (!(world instanceof ServerWorld) || !BDConfigSnapshot.get().enableDormantSpawners) return;
+        if (!spawner.getTileData().getBoolean(DUNGEON_SPAWNER)) return;
+
+        // Range in which players activate the spawner, which may have been changed by its NBT
+        int activationRange = spawner.getSpawnerBaseLogic().write(new CompoundNBT()).getShort("RequiredPlayerRange");
+        if (activationRange > MAX_DORMANT_RANGE) return;
+
+        INDICES.computeIfAbsent(world.getDimensionKey(), key -> new DormantSpawnerIndex()).add(spawner);
+    }
+
+    /**
+     * Removes a spawner whose chunk is being unloaded from its world's index.
+     */
+    public static void onSpawnerUnload(MobSpawnerTileEntity spawner) {
+        World world = spawner.getWorld();
+        if (world == null) return;
+
+        DormantSpawnerIndex index = INDICES.get(world.getDimensionKey());
+        if (index != null) {
+            index.remove(spawner);
+        }
+    }
+
+    /**
+     * Wakes and puts to sleep the world's indexed spawners according to where its players are.
+     * Should be called at the start of every world tick, before block entities tick.
+     */
+    public static void update(ServerWorld world) {
+        DormantSpawnerIndex index = INDICES.get(world.getDimensionKey());
+        if (index == null) return;
+
+        if (!BDConfigSnapshot.get().enableDormantSpawners) {
+            // Disabled while the server is running, so hand every spawner back to vanilla ticking
+            index.spawnersByChunk.values().forEach(spawners -> spawners.forEach(spawner -> setDormant(spawner, false)));
+            INDICES.remove(world.getDimensionKey());
+            return;
+        }
+
+        index.updateAwakeChunks(world.getPlayers());
+    }
+
+    /**
+     * Forgets every index, waking all indexed spawners. Called when the server stops.
+     */
+    public static void clear() {
+        INDICES.values().forEach(index -> index.spawnersByChunk.values().forEach(spawners -> spawners.forEach(spawner -> setDormant(spawner, false))));
+        INDICES.clear();
+    }
+
+    private void add(MobSpawnerTileEntity spawner) {
+        long chunkKey = ChunkPos.asLong(spawner.getPos().getX() >> 4, spawner.getPos().getZ() >> 4);
+        List<MobSpawnerTileEntity> spawners = this.spawnersByChunk.computeIfAbsent(chunkKey, key -> new ArrayList<>());
+        if (!spawners.contains(spawner)) {
+            spawners.add(spawner);
+        }
+        setDormant(spawner, !this.awakeChunks.contains(chunkKey));
+    }
+
+    private void remove(MobSpawnerTileEntity spawner) {
+        long chunkKey = ChunkPos.asLong(spawner.getPos().getX() >> 4, spawner.getPos().getZ() >> 4);
+        List<MobSpawnerTileEntity> spawners = this.spawnersByChunk.get(chunkKey);
+        if (spawners != null) {
+            spawners.remove(spawner);
+            if (spawners.isEmpty()) {
+                this.spawnersByChunk.remove(chunkKey);
+            }
+        }
+        setDormant(spawner, false);
+    }
+
+    private void updateAwakeChunks(List<ServerPlayerEntity> players) {
+        LongSet newPlayerChunks = new LongOpenHashSet();
+        for (ServerPlayerEntity player : players) {
+            newPlayerChunks.add(ChunkPos.asLong(MathHelper.floor(player.getPosX()) >> 4, MathHelper.floor(player.getPosZ()) >> 4));
+        }
+
+        // Nothing changes unless a player has crossed a chunk border
+        if (newPlayerChunks.equals(this.playerChunks)) return;
+        this.playerChunks = newPlayerChunks;
+
+        LongSet newAwakeChunks = new LongOpenHashSet();
+        for (LongIterator iterator = newPlayerChunks.iterator(); iterator.hasNext(); ) {
+            long playerChunk = iterator.nextLong();
+            int playerChunkX = ChunkPos.getX(playerChunk);
+            int playerChunkZ = ChunkPos.getZ(playerChunk);
+            for (int chunkX = playerChunkX - WAKE_RADIUS; chunkX <= playerChunkX + WAKE_RADIUS; chunkX++) {
+                for (int chunkZ = playerChunkZ - WAKE_RADIUS; chunkZ <= playerChunkZ + WAKE_RADIUS; chunkZ++) {
+                    newAwakeChunks.add(ChunkPos.asLong(chunkX, chunkZ));
+                }
+            }
+        }
+
+        // Only chunks that players approached or left need their spawners updated
+        for (LongIterator iterator = newAwakeChunks.iterator(); iterator.hasNext(); ) {
+            long chunkKey = iterator.nextLong();
+            if (!this.awakeChunks.contains(chunkKey)) {
+                setChunkDormant(chunkKey, false);
+            }
+        }
+        for (LongIterator iterator = this.awakeChunks.iterator(); iterator.hasNext(); ) {
+            long chunkKey = iterator.nextLong();
+            if (!newAwakeChunks.contains(chunkKey)) {
+                setChunkDormant(chunkKey, true);
+            }
+        }
+        this.awakeChunks = newAwakeChunks;
+    }
+
+    private void setChunkDormant(long chunkKey, boolean dormant) {
+        List<MobSpawnerTileEntity> spawners = this.spawnersByChunk.get(chunkKey);
+        if (spawners == null) return;
+
+        // Spawners whose block was broken are dropped here, since removal doesn't notify the index
+        spawners.removeIf(TileEntity::isRemoved);
+        if (spawners.isEmpty()) {
+            this.spawnersByChunk.remove(chunkKey);
+            return;
+        }
+        spawners.forEach(spawner -> setDormant(spawner, dormant));
+    }
+
+    private static void setDormant(MobSpawnerTileEntity spawner, boolean dormant) {
+        ((Holder) spawner).betterdungeons_setDormant(dormant);
+    }
+
+    /**
+     * Implemented by {@link MobSpawnerTileEntity} through a mixin, to store whether it is dormant.
+     */
+    public interface Holder {
+        boolean betterdungeons_isDormant();
+
+        void betterdungeons_setDormant(boolean dormant);
+    }
+}
@@ -0,0 +1,316 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.world.planner.DungeonPlacementPlanner;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SharedSeedRandom;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.IWorldReader;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.provider.BiomeProvider;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureManager;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Per-dimension index of every Better Dungeons structure start that has been generated,
+ * and of every spacing region whose candidate chunk has already had its structure starts decided.
+ * Entries are bucketed into a coarse spatial grid, keyed by chunk.
+ *
+ * Starts may be discovered off the server thread, so new entries are first queued
+ * and then drained into the saved data on the server thread.
+ */
+public class DungeonLocationIndex extends WorldSavedData {
+    public static final String NAME = BetterDungeons.MOD_ID + "_locations";
+
+    /**
+     * Width of a grid cell, in chunks (as a power of two).
+     */
+    private static final int CELL_SHIFT = 4;
+
+    private static final Map<RegistryKey<World>, Queue<Entry>> PENDING = new ConcurrentHashMap<>();
+    private static final Map<RegistryKey<World>, Queue<SeenRegion>> PENDING_SEEN = new ConcurrentHashMap<>();
+
+    private final Long2ObjectMap<List<Entry>> grid = new Long2ObjectOpenHashMap<>();
+    private int size;
+
+    /**
+     * Spacing regions whose candidate chunk has reached the structure starts stage, per structure.
+     * Whether or not a start was placed there is final, so locating never needs to load that chunk again.
+     */
+    private final Map<ResourceLocation, LongSet> seenRegions = new HashMap<>();
+
+    public DungeonLocationIndex() {
+        super(NAME);
+    }
+
+    public static DungeonLocationIndex get(ServerWorld world) {
+        return world.getSavedData().getOrCreate(DungeonLocationIndex::new, NAME);
+    }
+
+    /**
+     * Queues a generated structure start to be added to the index of the given dimension.
+     * Safe to call from any thread.
+     */
+    public static void enqueue(RegistryKey<World> dimension, ResourceLocation structure, int chunkX, int chunkZ, MutableBoundingBox boundingBox) {
+        PENDING.computeIfAbsent(dimension, key -> new ConcurrentLinkedQueue<>())
+            .add(new Entry(structure, chunkX, chunkZ, new MutableBoundingBox(boundingBox)));
+    }
+
+    /**
+     * Queues the spacing regions whose candidate chunk is the given chunk, if its structure starts have been decided.
+     * Safe to call from any thread.
+     */
+    public static void enqueueSeen(ServerWorld world, IChunk chunk) {
+        if (!chunk.getStatus().isAtLeast(ChunkStatus.STRUCTURE_STARTS)) return;
+
+        ChunkPos chunkPos = chunk.getPos();
+        SharedSeedRandom random = new SharedSeedRandom();
+        for (Map.Entry<Structure<?>, StructureSeparationSettings> entry : world.getChunkProvider().getChunkGenerator().func_235957_b_().func_236195_a_().entrySet()) {
+            ResourceLocation structureName = entry.getKey().getRegistryName();
+            if (structureName == null || !structureName.getNamespace().equals(BetterDungeons.MOD_ID)) continue;
+
+            StructureSeparationSettings separationSettings = entry.getValue();
+            int regionX = Math.floorDiv(chunkPos.x, separationSettings.func_236668_a_());
+            int regionZ = Math.floorDiv(chunkPos.z, separationSettings.func_236668_a_());
+            int[] candidate = DungeonPlacementPlanner.getCandidateChunk(world.getSeed(), separationSettings, regionX, regionZ, random);
+            if (candidate[0] == chunkPos.x && candidate[1] == chunkPos.z) {
+                PENDING_SEEN.computeIfAbsent(world.getDimensionKey(), key -> new ConcurrentLinkedQueue<>())
+                    .add(new SeenRegion(structureName, regionX, regionZ));
+            }
+        }
+    }
+
+    /**
+     * Moves all queued entries for the world into its saved index.
+     * Must be called on the server thread.
+     */
+    public static void drain(ServerWorld world) {
+        Queue<Entry> queue = PENDING.get(world.getDimensionKey());
+        Queue<SeenRegion> seenQueue = PENDING_SEEN.get(world.getDimensionKey());
+        if ((queue == null || queue.isEmpty()) && (seenQueue == null || seenQueue.isEmpty())) return;
+
+        DungeonLocationIndex index = get(world);
+        Entry entry;
+        while (queue != null && (entry = queue.poll()) != null) {
+            index.add(entry);
+        }
+        SeenRegion seen;
+        while (seenQueue != null && (seen = seenQueue.poll()) != null) {
+            index.addSeen(seen.structure, ChunkPos.asLong(seen.regionX, seen.regionZ));
+        }
+    }
+
+    /**
+     * Finds the first start of the given structure in the same order, and with the same result, as the vanilla locate scan.
+     *
+     * Vanilla loads the candidate chunk of every spacing region it visits up to the structure starts stage,
+     * which generates that chunk's terrain if it doesn't exist yet, and does so on the server thread.
+     * Here a region is answered from the index when its candidate chunk has been seen, and skipped without loading anything
+     * when the biome at its candidate chunk can't hold the structure. Only the remaining regions are loaded as vanilla would.
+     * In explored areas every region has been seen, so a search loads no chunks at all, where vanilla loads one per region visited,
+     * e.g. up to 4 * radius * (radius + 1) + 1 chunks for a search that finds nothing.
+     *
+     * Falls back to the given vanilla scan for searches that skip existing chunks, such as treasure maps,
+     * since those depend on each start's references rather than on whether it exists.
+     */
+    @Nullable
+    public static BlockPos locate(Structure<?> structure, IWorldReader worldIn, StructureManager structureManager, BlockPos pos, int radius, boolean skipExistingChunks,
+                                  long seed, StructureSeparationSettings separationSettings, Supplier<BlockPos> vanillaScan) {
+        ResourceLocation structureName = structure.getRegistryName();
+        if (skipExistingChunks || !(worldIn instanceof ServerWorld) || structureName == null) {
+            return vanillaScan.get();
+        }
+
+        ServerWorld world = (ServerWorld) worldIn;
+        drain(world);
+        DungeonLocationIndex index = get(world);
+        LongSet seen = index.seenRegions.getOrDefault(structureName, LongSets.EMPTY_SET);
+        BiomeProvider biomeProvider = world.getChunkProvider().getChunkGenerator().getBiomeProvider();
+        SharedSeedRandom random = new SharedSeedRandom();
+
+        int spacing = separationSettings.func_236668_a_();
+        int originRegionX = Math.floorDiv(pos.getX() >> 4, spacing);
+        int originRegionZ = Math.floorDiv(pos.getZ() >> 4, spacing);
+
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    // Only visit the outer edge of the ring
+                    if (Math.abs(dx) != ring && Math.abs(dz) != ring) continue;
+
+                    int regionX = originRegionX + dx;
+                    int regionZ = originRegionZ + dz;
+                    int[] candidate = DungeonPlacementPlanner.getCandidateChunk(seed, separationSettings, regionX, regionZ, random);
+                    int chunkX = candidate[0];
+                    int chunkZ = candidate[1];
+
+                    if (seen.contains(ChunkPos.asLong(regionX, regionZ))) {
+                        if (index.contains(structureName, chunkX, chunkZ)) {
+                            return new BlockPos(chunkX << 4, 0, chunkZ << 4);
+                        }
+                        continue;
+                    }
+
+                    // Same biome sample the chunk generator uses when placing structure starts
+                    if (!biomeProvider.getNoiseBiome((chunkX << 2) + 2, 0, (chunkZ << 2) + 2).getGenerationSettings().hasStructure(structure)) continue;
+
+                    IChunk chunk = world.getChunk(chunkX, chunkZ, ChunkStatus.STRUCTURE_STARTS);
+                    StructureStart<?> start = structureManager.getStructureStart(SectionPos.from(chunk.getPos(), 0), structure, chunk);
+                    if (start != null && start.isValid()) {
+                        return start.getPos();
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private void add(Entry entry) {
+        List<Entry> cell = this.grid.computeIfAbsent(ChunkPos.asLong(entry.chunkX >> CELL_SHIFT, entry.chunkZ >> CELL_SHIFT), key -> new ArrayList<>());
+
+        // Starts may be reported more than once, e.g. when their chunk is reloaded
+        for (Entry existing : cell) {
+            if (existing.chunkX == entry.chunkX && existing.chunkZ == entry.chunkZ && existing.structure.equals(entry.structure)) {
+                return;
+            }
+        }
+
+        cell.add(entry);
+        this.size++;
+        this.markDirty();
+    }
+
+    private boolean contains(ResourceLocation structure, int chunkX, int chunkZ) {
+        List<Entry> cell = this.grid.get(ChunkPos.asLong(chunkX >> CELL_SHIFT, chunkZ >> CELL_SHIFT));
+        if (cell == null) return false;
+
+        for (Entry entry : cell) {
+            if (entry.chunkX == chunkX && entry.chunkZ == chunkZ && entry.structure.equals(structure)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addSeen(ResourceLocation structure, long region) {
+        if (this.seenRegions.computeIfAbsent(structure, key -> new LongOpenHashSet()).add(region)) {
+            this.markDirty();
+        }
+    }
+
+    @Override
+    public void read(CompoundNBT nbt) {
+        this.grid.clear();
+        this.size = 0;
+        this.seenRegions.clear();
+
+        ListNBT entries = nbt.getList("Entries", Constants.NBT.TAG_COMPOUND);
+        for (INBT inbt : entries) {
+            CompoundNBT tag = (CompoundNBT) inbt;
+            ResourceLocation structure = ResourceLocation.tryCreate(tag.getString("Structure"));
+            int[] bounds = tag.getIntArray("BB");
+            if (structure == null || bounds.length != 6) {
+                BetterDungeons.LOGGER.warn("Skipping malformed entry in dungeon location index: {}", tag);
+                continue;
+            }
+            add(new Entry(structure, tag.getInt("ChunkX"), tag.getInt("ChunkZ"), new MutableBoundingBox(bounds)));
+        }
+
+        ListNBT seen = nbt.getList("Seen", Constants.NBT.TAG_COMPOUND);
+        for (INBT inbt : seen) {
+            CompoundNBT tag = (CompoundNBT) inbt;
+            ResourceLocation structure = ResourceLocation.tryCreate(tag.getString("Structure"));
+            if (structure == null) {
+                BetterDungeons.LOGGER.warn("Skipping malformed seen regions in dungeon location index: {}", tag.getString("Structure"));
+                continue;
+            }
+            this.seenRegions.put(structure, new LongOpenHashSet(tag.getLongArray("Regions")));
+        }
+    }
+
+    @Override
+    public CompoundNBT write(CompoundNBT nbt) {
+        ListNBT entries = new ListNBT();
+        for (List<Entry> cell : this.grid.values()) {
+            for (Entry entry : cell) {
+                CompoundNBT tag = new CompoundNBT();
+                tag.putString("Structure", entry.structure.toString());
+                tag.putInt("ChunkX", entry.chunkX);
+                tag.putInt("ChunkZ", entry.chunkZ);
+                tag.put("BB", entry.boundingBox.toNBTTagIntArray());
+                entries.add(tag);
+            }
+        }
+        nbt.put("Entries", entries);
+
+        ListNBT seen = new ListNBT();
+        this.seenRegions.forEach((structure, regions) -> {
+            CompoundNBT tag = new CompoundNBT();
+            tag.putString("Structure", structure.toString());
+            tag.putLongArray("Regions", regions.toLongArray());
+            seen.add(tag);
+        });
+        nbt.put("Seen", seen);
+        return nbt;
+    }
+
+    private static class SeenRegion {
+        private final ResourceLocation structure;
+        private final int regionX;
+        private final int regionZ;
+
+        private SeenRegion(ResourceLocation structure, int regionX, int regionZ) {
+            this.structure = structure;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+    }
+
+    public static class Entry {
+        public final ResourceLocation structure;
+        public final int chunkX;
+        public final int chunkZ;
+        public final MutableBoundingBox boundingBox;
+
+        public Entry(ResourceLocation structure, int chunkX, int chunkZ, MutableBoundingBox boundingBox) {
+            this.structure = structure;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.boundingBox = boundingBox;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Locale;
+
+/**
+ * Adaptive throttling of heavy optional dungeon features under server load.
+ *
+ * The server thread samples the average tick time about once a second. While it is above the configured budget,
+ * {@link #shouldSimplify} tells generation to skip optional features, such as Zombie Dungeon surface staircases.
+ * Throttling stops once the average drops back below {@link #RELEASE_FRACTION} of the budget,
+ * so that it doesn't flap on and off around the budget.
+ *
+ * Each skipped feature is replaced by exactly what generates when the feature isn't possible at that spot,
+ * so throttled dungeons are still complete, valid dungeons.
+ */
+public class GenerationThrottle {
+    public static final String ZOMBIE_SURFACE_STAIRCASE = "zombie_surface_staircase";
+    public static final String SPIDER_EXTRA_BIG_TUNNEL = "spider_extra_big_tunnel";
+
+    private static final double RELEASE_FRACTION = 0.8;
+
+    /**
+     * Written by the server thread, read by worldgen threads.
+     */
+    private static volatile boolean throttling;
+
+    public static boolean isThrottling() {
+        return throttling;
+    }
+
+    /**
+     * Updates the throttling state from the server's recent tick times.
+     * Must be called on the server thread.
+     */
+    public static void update(MinecraftServer server) {
+        BDConfigSnapshot config = BDConfigSnapshot.get();
+        if (!config.enableAdaptiveThrottling) {
+            if (throttling) {
+                BetterDungeons.LOGGER.info("Adaptive throttling disabled. Resuming full dungeon generation.");
+                throttling = false;
+            }
+            return;
+        }
+
+        long totalTickNanos = 0;
+        for (long tickNanos : server.tickTimeArray) {
+            totalTickNanos += tickNanos;
+        }
+        double averageTickMillis = totalTickNanos / (double) server.tickTimeArray.length / 1e6;
+
+        if (!throttling && averageTickMillis > config.adaptiveThrottlingTickBudget) {
+            BetterDungeons.LOGGER.info("Average tick time of {} ms is over the budget of {} ms. Skipping heavy optional dungeon features until the server recovers.",
+                String.format(Locale.ROOT, "%.1f", averageTickMillis), config.adaptiveThrottlingTickBudget);
+            throttling = true;
+        } else if (throttling && averageTickMillis < config.adaptiveThrottlingTickBudget * RELEASE_FRACTION) {
+            BetterDungeons.LOGGER.info("Average tick time of {} ms is back under the budget of {} ms. Resuming full dungeon generation.",
+                String.format(Locale.ROOT, "%.1f", averageTickMillis), config.adaptiveThrottlingTickBudget);
+            throttling = false;
+        }
+    }
+
+    /**
+     * Returns whether the given optional feature at the given position should be skipped.
+     * Every skip is logged and counted in the generation metrics.
+     */
+    public static boolean shouldSimplify(String feature, BlockPos pos) {
+        if (!throttling) return false;
+
+        GenerationMetrics.counter(GenerationMetrics.THROTTLED, feature).increment();
+        BetterDungeons.LOGGER.info("Skipped {} at {} {} {} due to server load", feature, pos.getX(), pos.getY(), pos.getZ());
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional limit on how many jigsaw dungeon layouts are assembled at once, across all world generation threads.
+ *
+ * Each structure start assembles its layout on its own thread, once it holds one of a fixed number of permits.
+ * Starts beyond the limit wait for a permit in arrival order, so the limit always holds.
+ * Assembly only uses the start's own random, so the generated layout is the same with or without the limit.
+ *
+ * The number of permits is read once, the first time the limit is used, since the options require a world restart.
+ */
+public class JigsawAssemblyLimit {
+    @Nullable
+    private static volatile Semaphore permits;
+    private static int permitCount;
+
+    private static final LongAdder ASSEMBLED = new LongAdder();
+    private static final LongAdder WAITED = new LongAdder();
+    private static final LongAdder TOTAL_WAIT_NANOS = new LongAdder();
+    private static final LongAdder TOTAL_RUN_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_WAIT_NANOS = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Runs the assembly on the calling thread, waiting for a permit first if the limit is enabled.
+     */
+    public static void assemble(Runnable assembly) {
+        BDConfigSnapshot config = BDConfigSnapshot.get();
+        if (!config.enableJigsawAssemblyLimit) {
+            assembly.run();
+            return;
+        }
+
+        Semaphore semaphore = getPermits(config);
+        long requestTime = System.nanoTime();
+        if (!semaphore.tryAcquire()) {
+            WAITED.increment();
+            semaphore.acquireUninterruptibly();
+        }
+
+        long startTime = System.nanoTime();
+        long waitNanos = startTime - requestTime;
+        TOTAL_WAIT_NANOS.add(waitNanos);
+        MAX_WAIT_NANOS.accumulate(waitNanos);
+        try {
+            assembly.run();
+        } finally {
+            semaphore.release();
+            ASSEMBLED.increment();
+            TOTAL_RUN_NANOS.add(System.nanoTime() - startTime);
+        }
+    }
+
+    private static Semaphore getPermits(BDConfigSnapshot config) {
+        Semaphore semaphore = permits;
+        if (semaphore == null) {
+            synchronized (JigsawAssemblyLimit.class) {
+                semaphore = permits;
+                if (semaphore == null) {
+                    permitCount = config.maxConcurrentJigsawAssemblies;
+                    semaphore = new Semaphore(permitCount, true);
+                    permits = semaphore;
+                }
+            }
+        }
+        return semaphore;
+    }
+
+    /**
+     * Returns a human-readable summary of the limit's state and timings.
+     */
+    public static String describe() {
+        Semaphore semaphore = permits;
+        long assembled = ASSEMBLED.sum();
+        return String.format(Locale.ROOT,
+            "Jigsaw assembly limit: %s, assembling %d/%d, waiting %d | assembled %d, had to wait %d | avg wait %.2f ms, max wait %.2f ms, avg assembly %.2f ms",
+            semaphore == null ? "unused" : "active",
+            semaphore == null ? 0 : permitCount - semaphore.availablePermits(),
+            semaphore == null ? 0 : permitCount,
+            semaphore == null ? 0 : semaphore.getQueueLength(),
+            assembled,
+            WAITED.sum(),
+            assembled == 0 ? 0 : TOTAL_WAIT_NANOS.sum() / 1e6 / assembled,
+            MAX_WAIT_NANOS.get() / 1e6,
+            assembled == 0 ? 0 : TOTAL_RUN_NANOS.sum() / 1e6 / assembled);
+    }
+}
@@ -0,0 +1,67 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.DynamicRegistries;
+import net.minecraft.util.registry.MutableRegistry;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.world.gen.feature.jigsaw.JigsawPattern;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Start pools of our jigsaw dungeons, resolved once per set of dynamic registries rather than once per structure start.
+ *
+ * A server's dynamic registries don't change while it runs, so the pools are resolved the first time a start
+ * asks for one with a given registries instance, and reused until a start asks with a different instance,
+ * such as after switching worlds in singleplayer. Safe to use from worldgen threads.
+ */
+public class JigsawPoolCache {
+    public static final String SMALL_DUNGEON = "small_dungeon";
+    public static final String SKELETON_DUNGEON = "skeleton_dungeon";
+    public static final String ZOMBIE_DUNGEON = "zombie_dungeon";
+
+    private static final String[] POOLS = {SMALL_DUNGEON, SKELETON_DUNGEON, ZOMBIE_DUNGEON};
+
+    @Nullable
+    private static volatile ResolvedPools resolved;
+
+    /**
+     * Returns our start pool with the given name, or null if the registries don't contain it.
+     */
+    @Nullable
+    public static JigsawPattern getPool(DynamicRegistries registries, String name) {
+        ResolvedPools pools = resolved;
+        if (pools == null || pools.registries != registries) {
+            pools = new ResolvedPools(registries);
+            resolved = pools;
+        }
+        return pools.pools.get(name);
+    }
+
+    /**
+     * Drops the resolved pools, so that the registries of a stopped server can be garbage collected.
+     */
+    public static void clear() {
+        resolved = null;
+    }
+
+    private static class ResolvedPools {
+        private final DynamicRegistries registries;
+        private final Map<String, JigsawPattern> pools = new HashMap<>();
+
+        private ResolvedPools(DynamicRegistries registries) {
+            this.registries = registries;
+            MutableRegistry<JigsawPattern> registry = registries.getRegistry(Registry.JIGSAW_POOL_KEY);
+            for (String name : POOLS) {
+                JigsawPattern pool = registry.getOrDefault(new ResourceLocation(BetterDungeons.MOD_ID, name));
+                if (pool == null) {
+                    BetterDungeons.LOGGER.warn("Missing jigsaw pool {}:{}", BetterDungeons.MOD_ID, name);
+                }
+                this.pools.put(name, pool);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Chunk-local set of block positions, indexed by {@code x | z << 4 | y << 8} like a vanilla carving mask.
+ *
+ * Storage is allocated per 16x16x16 section on first write, so a mask that only touches a few sections
+ * costs a few 512-byte arrays instead of a full 8 KB {@link java.util.BitSet} for the whole chunk.
+ * Iteration skips unallocated sections and empty words, and visits positions in ascending index order, as BitSet does.
+ */
+public class SparseCarvingMask {
+    private static final int SECTIONS = 16;
+    private static final int WORDS_PER_SECTION = 64;
+
+    /**
+     * Bits of each section in {@code x | z << 4 | (y & 15) << 8} order, or null if nothing was set in the section.
+     */
+    private final long[][] sections = new long[SECTIONS][];
+
+    public boolean get(int index) {
+        long[] words = this.sections[index >> 12];
+        return words != null && (words[(index & 0xFFF) >> 6] & 1L << index) != 0;
+    }
+
+    public void set(int index) {
+        long[] words = this.sections[index >> 12];
+        if (words == null) {
+            words = this.sections[index >> 12] = new long[WORDS_PER_SECTION];
+        }
+        words[(index & 0xFFF) >> 6] |= 1L << index;
+    }
+
+    public void clear(int index) {
+        long[] words = this.sections[index >> 12];
+        if (words != null) {
+            words[(index & 0xFFF) >> 6] &= ~(1L << index);
+        }
+    }
+
+    public boolean isEmpty() {
+        for (long[] words : this.sections) {
+            if (words == null) continue;
+            for (long word : words) {
+                if (word != 0) return false;
+            }
+        }
+        return true;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long[] words : this.sections) {
+            if (words == null) continue;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calls the given consumer with the index of every set position, in ascending order.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int section = 0; section < SECTIONS; section++) {
+            long[] words = this.sections[section];
+            if (words == null) continue;
+            for (int word = 0; word < WORDS_PER_SECTION; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    consumer.accept(section << 12 | word << 6 | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds every position set in the given mask to this one.
+     */
+    public void or(SparseCarvingMask other) {
+        for (int section = 0; section < SECTIONS; section++) {
+            long[] otherWords = other.sections[section];
+            if (otherWords == null) continue;
+            long[] words = this.sections[section];
+            if (words == null) {
+                this.sections[section] = otherWords.clone();
+            } else {
+                for (int word = 0; word < WORDS_PER_SECTION; word++) {
+                    words[word] |= otherWords[word];
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every position not set in the given mask from this one.
+     */
+    public void and(SparseCarvingMask other) {
+        for (int section = 0; section < SECTIONS; section++) {
+            long[] words = this.sections[section];
+            if (words == null) continue;
+            long[] otherWords = other.sections[section];
+            if (otherWords == null) {
+                this.sections[section] = null;
+            } else {
+                for (int word = 0; word < WORDS_PER_SECTION; word++) {
+                    words[word] &= otherWords[word];
+                }
+            }
+        }
+    }
+}
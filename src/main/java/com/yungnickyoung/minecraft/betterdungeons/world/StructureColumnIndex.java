@@ -0,0 +1,188 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.util.math.SectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureManager;
+import net.minecraft.world.gen.feature.structure.StructurePiece;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+import net.minecraft.world.server.ServerWorld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-dimension cache of which Better Dungeons piece volumes cover each block column of a loaded chunk.
+ *
+ * Our structures restrict their mob spawns to the inside of their pieces, so natural spawning asks
+ * for the start whose pieces contain each candidate position. Vanilla answers by resolving the chunk's
+ * structure references and walking every piece's bounding box, which for a spider dungeon means dozens of boxes.
+ * The index answers the same question from the y-ranges of the pieces covering the position's column.
+ *
+ * A chunk's columns are indexed the first time it is queried, and dropped when the chunk or its world unloads.
+ * Each dimension also keeps at most {@link #MAX_CHUNKS} chunks, dropping the least recently queried one beyond that,
+ * so chunks whose unload is never seen can't grow the index without bound.
+ * A full chunk's references never change, but starts can lose pieces that fail to place while neighboring chunks
+ * generate, so each entry remembers the piece counts of its starts and is rebuilt if any of them changed.
+ *
+ * All methods must be called on the server thread.
+ */
+public class StructureColumnIndex {
+    /**
+     * Maximum number of indexed chunks per dimension.
+     * Spawning only queries chunks near players, so this is well above what a busy server keeps loaded around them.
+     */
+    private static final int MAX_CHUNKS = 8192;
+
+    private static final Map<RegistryKey<World>, Long2ObjectLinkedOpenHashMap<Map<Structure<?>, ChunkColumns>>> INDICES = new HashMap<>();
+
+    /**
+     * Returns whether lookups of the given structure should go through the index.
+     */
+    public static boolean isIndexed(Structure<?> structure) {
+        ResourceLocation structureName = structure.getRegistryName();
+        return structureName != null && structureName.getNamespace().equals(BetterDungeons.MOD_ID);
+    }
+
+    /**
+     * Returns the start of the given structure with a piece containing the given position,
+     * or {@link StructureStart#DUMMY} if there is none, exactly like {@link StructureManager#getStructureStart}.
+     */
+    public static StructureStart<?> getStructureStart(ServerWorld world, StructureManager structureManager, BlockPos pos, Structure<?> structure) {
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        Long2ObjectLinkedOpenHashMap<Map<Structure<?>, ChunkColumns>> index = INDICES.computeIfAbsent(world.getDimensionKey(), key -> new Long2ObjectLinkedOpenHashMap<>());
+        long chunkKey = ChunkPos.asLong(chunkX, chunkZ);
+
+        // Keep the most recently queried chunks at the end, so the least recently queried one is evicted first
+        Map<Structure<?>, ChunkColumns> chunkIndex = index.getAndMoveToLast(chunkKey);
+        if (chunkIndex == null) {
+            chunkIndex = new IdentityHashMap<>();
+            index.putAndMoveToLast(chunkKey, chunkIndex);
+            if (index.size() > MAX_CHUNKS) {
+                index.removeFirst();
+            }
+        }
+
+        ChunkColumns columns = chunkIndex.get(structure);
+        if (columns == null || !columns.isCurrent()) {
+            columns = ChunkColumns.build(structureManager, structure, chunkX, chunkZ);
+            chunkIndex.put(structure, columns);
+        }
+        return columns.getStructureStart(pos);
+    }
+
+    /**
+     * Drops the index of a chunk that is being unloaded.
+     */
+    public static void onChunkUnload(ServerWorld world, ChunkPos chunkPos) {
+        Long2ObjectMap<Map<Structure<?>, ChunkColumns>> index = INDICES.get(world.getDimensionKey());
+        if (index != null) {
+            index.remove(chunkPos.asLong());
+        }
+    }
+
+    /**
+     * Drops the whole index of a world that is being unloaded.
+     */
+    public static void onWorldUnload(ServerWorld world) {
+        INDICES.remove(world.getDimensionKey());
+    }
+
+    public static void clear() {
+        INDICES.clear();
+    }
+
+    private static class ChunkColumns {
+        private static final ChunkColumns EMPTY = new ChunkColumns(new StructureStart<?>[0], new int[0], new int[256][]);
+
+        private final StructureStart<?>[] starts;
+        private final int[] pieceCounts;
+
+        /**
+         * For each column, in x | z << 4 order, the (minY, maxY, start index) of each piece covering it,
+         * in the order vanilla visits starts and pieces. Null for columns no piece covers.
+         */
+        private final int[][] columns;
+
+        private ChunkColumns(StructureStart<?>[] starts, int[] pieceCounts, int[][] columns) {
+            this.starts = starts;
+            this.pieceCounts = pieceCounts;
+            this.columns = columns;
+        }
+
+        private static ChunkColumns build(StructureManager structureManager, Structure<?> structure, int chunkX, int chunkZ) {
+            List<StructureStart<?>> starts = new ArrayList<>();
+            structureManager.func_235011_a_(SectionPos.from(new ChunkPos(chunkX, chunkZ), 0), structure).forEach(starts::add);
+            if (starts.isEmpty()) return EMPTY;
+
+            int minX = chunkX << 4;
+            int minZ = chunkZ << 4;
+            IntArrayList[] columnIntervals = new IntArrayList[256];
+            int[] pieceCounts = new int[starts.size()];
+            for (int startIndex = 0; startIndex < starts.size(); startIndex++) {
+                List<StructurePiece> pieces = starts.get(startIndex).getComponents();
+                pieceCounts[startIndex] = pieces.size();
+                for (StructurePiece piece : pieces) {
+                    MutableBoundingBox box = piece.getBoundingBox();
+                    if (!box.intersectsWith(minX, minZ, minX + 15, minZ + 15)) continue;
+
+                    for (int x = Math.max(box.minX, minX); x <= Math.min(box.maxX, minX + 15); x++) {
+                        for (int z = Math.max(box.minZ, minZ); z <= Math.min(box.maxZ, minZ + 15); z++) {
+                            int column = (x & 15) | (z & 15) << 4;
+                            if (columnIntervals[column] == null) {
+                                columnIntervals[column] = new IntArrayList(3);
+                            }
+                            columnIntervals[column].add(box.minY);
+                            columnIntervals[column].add(box.maxY);
+                            columnIntervals[column].add(startIndex);
+                        }
+                    }
+                }
+            }
+
+            int[][] columns = new int[256][];
+            for (int column = 0; column < 256; column++) {
+                if (columnIntervals[column] != null) {
+                    columns[column] = columnIntervals[column].toIntArray();
+                }
+            }
+            return new ChunkColumns(starts.toArray(new StructureStart<?>[0]), pieceCounts, columns);
+        }
+
+        private boolean isCurrent() {
+            for (int i = 0; i < this.starts.length; i++) {
+                if (this.starts[i].getComponents().size() != this.pieceCounts[i]) return false;
+            }
+            return true;
+        }
+
+        private StructureStart<?> getStructureStart(BlockPos pos) {
+            int[] intervals = this.columns[(pos.getX() & 15) | (pos.getZ() & 15) << 4];
+            if (intervals == null) return StructureStart.DUMMY;
+
+            int y = pos.getY();
+            for (int i = 0; i < intervals.length; i += 3) {
+                if (y >= intervals[i] && y <= intervals[i + 1]) {
+                    StructureStart<?> start = this.starts[intervals[i + 2]];
+                    if (start.getBoundingBox().isVecInside(pos)) {
+                        return start;
+                    }
+                }
+            }
+            return StructureStart.DUMMY;
+        }
+    }
+}
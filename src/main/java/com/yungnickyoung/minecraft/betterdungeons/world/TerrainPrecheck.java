@@ -0,0 +1,123 @@
+package com.yungnickyoung.minecraft.betterdungeons.world;
+
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockReader;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.gen.Heightmap;
+
+import javax.annotation.Nullable;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Cheap terrain check for dungeon starting heights, run before the dungeon is assembled.
+ *
+ * Samples the chunk generator's noise column at each corner of the start chunk. These columns are the base terrain,
+ * before surface building and carvers, so they are cheap to compute and don't need the chunk to exist.
+ * The range of starting heights is first capped so that the dungeon stays well below the lowest corner's terrain,
+ * which keeps it out of the ocean and out of the open air in low terrain. Heights whose floor or ceiling
+ * would be in open space at any corner, such as overhangs and water pockets, are then re-rolled.
+ *
+ * All rolls use the structure start's own random, so the result is deterministic for a given seed.
+ */
+public class TerrainPrecheck {
+    /**
+     * Returned by {@link #chooseStartY} when no suitable starting height was found.
+     */
+    public static final int REJECTED = -1;
+
+    /**
+     * Minimum number of blocks between a dungeon's starting height and the terrain surface above it.
+     */
+    private static final int MIN_COVER = 8;
+
+    /**
+     * Height above the starting height that must be solid too, roughly the ceiling of a dungeon's first room.
+     */
+    private static final int CEILING_HEIGHT = 4;
+
+    /**
+     * Number of starting heights rolled before giving up on a start.
+     */
+    private static final int MAX_ROLLS = 4;
+
+    private static final Predicate<BlockState> SURFACE = Heightmap.Type.OCEAN_FLOOR_WG.getHeightLimitPredicate();
+
+    /**
+     * Returns a starting height between minY (inclusive) and maxY (exclusive) for a dungeon starting in the given chunk,
+     * or {@link #REJECTED} if the terrain there doesn't fit one.
+     * While the precheck is disabled, rolls a height exactly as dungeons always have.
+     * Rejections and re-rolls are counted for the given dungeon type, unless it is null.
+     */
+    public static int chooseStartY(ChunkGenerator chunkGenerator, int chunkX, int chunkZ, int minY, int maxY, Random random, @Nullable String dungeonType) {
+        if (!BDConfigSnapshot.get().enableTerrainPrecheck) {
+            return random.nextInt(maxY - minY) + minY;
+        }
+
+        IBlockReader[] columns = new IBlockReader[4];
+        int lowestSurface = Integer.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            int x = (chunkX << 4) + ((corner & 1) == 0 ? 0 : 15);
+            int z = (chunkZ << 4) + ((corner & 2) == 0 ? 0 : 15);
+            columns[corner] = chunkGenerator.func_230348_a_(x, z);
+            lowestSurface = Math.min(lowestSurface, getSurfaceHeight(columns[corner], chunkGenerator.getMaxBuildHeight()));
+        }
+
+        // Keep the dungeon under the lowest corner's terrain
+        int cappedMaxY = Math.min(maxY, lowestSurface - MIN_COVER);
+        if (cappedMaxY <= minY) {
+            count(GenerationMetrics.TERRAIN_REJECTED, dungeonType);
+            return REJECTED;
+        }
+
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (int roll = 0; roll < MAX_ROLLS; roll++) {
+            int y = random.nextInt(cappedMaxY - minY) + minY;
+            if (isEnclosed(columns, y, mutable)) {
+                return y;
+            }
+            count(GenerationMetrics.TERRAIN_REROLLED, dungeonType);
+        }
+
+        count(GenerationMetrics.TERRAIN_REJECTED, dungeonType);
+        return REJECTED;
+    }
+
+    private static void count(String category, @Nullable String dungeonType) {
+        if (dungeonType != null) {
+            GenerationMetrics.counter(category, dungeonType).increment();
+        }
+    }
+
+    /**
+     * Returns the height of the first block above the given column's terrain, ignoring fluids.
+     */
+    private static int getSurfaceHeight(IBlockReader column, int maxBuildHeight) {
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (int y = maxBuildHeight - 1; y >= 0; y--) {
+            if (SURFACE.test(column.getBlockState(mutable.setPos(0, y, 0)))) {
+                return y + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns whether the floor below and the ceiling above the given height are solid in every column.
+     */
+    private static boolean isEnclosed(IBlockReader[] columns, int y, BlockPos.Mutable mutable) {
+        for (IBlockReader column : columns) {
+            if (isOpen(column.getBlockState(mutable.setPos(0, y - 1, 0))) || isOpen(column.getBlockState(mutable.setPos(0, y + CEILING_HEIGHT, 0)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOpen(BlockState state) {
+        return state.isAir() || !state.getFluidState().isEmpty();
+    }
+}
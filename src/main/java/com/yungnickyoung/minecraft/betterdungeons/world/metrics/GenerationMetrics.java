@@ -0,0 +1,218 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency metrics for dungeon generation: structure start assembly and placement per dungeon type,
+ * spider dungeon piece placement per piece type, and block processing per processor.
+ * Piece and processor times are included in the placement time of their dungeon type.
+ * Also keeps counters of rare generation decisions, such as features skipped by adaptive throttling
+ * and starting heights rejected by the terrain precheck.
+ *
+ * Collection is off by default. While disabled, {@link #start()} is a single volatile read
+ * and {@link #stop} a single comparison, so instrumented code pays next to nothing.
+ */
+public class GenerationMetrics {
+    public static final String STARTS = "starts";
+    public static final String PLACEMENT = "placement";
+    public static final String PIECES = "pieces";
+    public static final String PROCESSORS = "processors";
+    public static final String THROTTLED = "throttled";
+    public static final String TERRAIN_REROLLED = "terrain_rerolled";
+    public static final String TERRAIN_REJECTED = "terrain_rejected";
+
+    /**
+     * Returned by {@link #start()} while collection is disabled.
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, Map<String, LatencyHistogram>> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, LongAdder>> COUNTERS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile long collectingSince = System.currentTimeMillis();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            collectingSince = System.currentTimeMillis();
+        }
+        enabled = enable;
+    }
+
+    /**
+     * Returns the histogram for the given category and name, creating it if needed.
+     * Callers should look up their histogram once and keep it, rather than on every call.
+     */
+    public static LatencyHistogram histogram(String category, String name) {
+        return HISTOGRAMS
+            .computeIfAbsent(category, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the counter for the given category and name, creating it if needed.
+     * Counters are always collected, so they should only be used for rare events.
+     */
+    public static LongAdder counter(String category, String name) {
+        return COUNTERS
+            .computeIfAbsent(category, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Returns the start time of a measurement, to be passed to {@link #stop}.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the time elapsed since the given start time, unless collection was disabled when it started.
+     */
+    public static void stop(LatencyHistogram histogram, long startTime) {
+        if (startTime != NOT_TIMED) {
+            histogram.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Runs the given action, recording its time in the given histogram while collection is enabled.
+     * Used by our structure starts to time placement around vanilla's StructureStart#func_230366_a_.
+     */
+    public static void time(LatencyHistogram histogram, Runnable action) {
+        long startTime = start();
+        action.run();
+        stop(histogram, startTime);
+    }
+
+    /**
+     * Returns the total time recorded so far by every histogram in the given category.
+     */
+    public static long getTotalNanos(String category) {
+        Map<String, LatencyHistogram> histograms = HISTOGRAMS.getOrDefault(category, Collections.emptyMap());
+        long total = 0;
+        for (LatencyHistogram histogram : histograms.values()) {
+            total += histogram.getTotalNanos();
+        }
+        return total;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.values().forEach(histograms -> histograms.values().forEach(LatencyHistogram::reset));
+        COUNTERS.values().forEach(counters -> counters.values().forEach(LongAdder::reset));
+        collectingSince = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns one human-readable line per histogram with recorded values, slowest total first within each category.
+     */
+    public static List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Generation metrics: %s, collecting for %d s",
+            enabled ? "enabled" : "disabled",
+            (System.currentTimeMillis() - collectingSince) / 1000));
+
+        for (String category : new String[]{STARTS, PLACEMENT, PIECES, PROCESSORS}) {
+            Map<String, LatencyHistogram> histograms = HISTOGRAMS.getOrDefault(category, Collections.emptyMap());
+            histograms.entrySet().stream()
+                .filter(entry -> entry.getValue().getCount() > 0)
+                .sorted(Map.Entry.<String, LatencyHistogram>comparingByValue(Comparator.comparingLong(LatencyHistogram::getTotalNanos)).reversed())
+                .forEach(entry -> {
+                    LatencyHistogram histogram = entry.getValue();
+                    lines.add(String.format(Locale.ROOT,
+                        "[%s] %s: n=%d total %.1f ms | mean %.1f us, p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                        category,
+                        entry.getKey(),
+                        histogram.getCount(),
+                        histogram.getTotalNanos() / 1e6,
+                        histogram.getMeanNanos() / 1e3,
+                        histogram.getValueAtQuantile(0.5) / 1e3,
+                        histogram.getValueAtQuantile(0.99) / 1e3,
+                        histogram.getValueAtQuantile(0.999) / 1e3,
+                        histogram.getMaxNanos() / 1e3));
+                });
+        }
+
+        new TreeMap<>(COUNTERS).forEach((category, counters) -> new TreeMap<>(counters).forEach((name, counter) -> {
+            if (counter.sum() > 0) {
+                lines.add(String.format(Locale.ROOT, "[%s] %s: %d", category, name, counter.sum()));
+            }
+        }));
+        return lines;
+    }
+
+    /**
+     * Writes every histogram, including its non-empty buckets, to the given file as JSON.
+     */
+    public static void dump(Path file) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("enabled", enabled);
+        root.addProperty("collectingSince", collectingSince);
+        root.addProperty("dumpedAt", System.currentTimeMillis());
+
+        new TreeMap<>(HISTOGRAMS).forEach((category, histograms) -> {
+            JsonObject categoryJson = new JsonObject();
+            new TreeMap<>(histograms).forEach((name, histogram) -> categoryJson.add(name, toJson(histogram)));
+            root.add(category, categoryJson);
+        });
+
+        JsonObject countersJson = new JsonObject();
+        new TreeMap<>(COUNTERS).forEach((category, counters) -> {
+            JsonObject categoryJson = new JsonObject();
+            new TreeMap<>(counters).forEach((name, counter) -> categoryJson.addProperty(name, counter.sum()));
+            countersJson.add(category, categoryJson);
+        });
+        root.add("counters", countersJson);
+
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(root, writer);
+        }
+    }
+
+    private static JsonObject toJson(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", histogram.getCount());
+        json.addProperty("totalNanos", histogram.getTotalNanos());
+        json.addProperty("meanNanos", histogram.getMeanNanos());
+        json.addProperty("p50Nanos", histogram.getValueAtQuantile(0.5));
+        json.addProperty("p90Nanos", histogram.getValueAtQuantile(0.9));
+        json.addProperty("p99Nanos", histogram.getValueAtQuantile(0.99));
+        json.addProperty("p999Nanos", histogram.getValueAtQuantile(0.999));
+        json.addProperty("maxNanos", histogram.getMaxNanos());
+
+        // Pairs of [bucket upper bound in nanoseconds, count]
+        JsonArray buckets = new JsonArray();
+        histogram.forEachBucket((upperBoundNanos, count) -> {
+            JsonArray bucket = new JsonArray();
+            bucket.add(upperBoundNanos);
+            bucket.add(count);
+            buckets.add(bucket);
+        });
+        json.add("buckets", buckets);
+        return json;
+    }
+}
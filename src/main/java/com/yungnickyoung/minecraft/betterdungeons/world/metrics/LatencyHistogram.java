@@ -0,0 +1,153 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram.
+ *
+ * Each power of two is split into 16 linear sub-buckets, so recorded values are accurate to
+ * within ~6% across the whole range. Every bucket is a striped LongAdder, so concurrent world
+ * generation threads recording into the same histogram don't contend on a single counter.
+ *
+ * Values are in nanoseconds. Anything above 2^36 ns (~69 s) lands in the last bucket.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Bucket counters, allocated the first time a value is recorded,
+     * so histograms that are never used cost next to nothing.
+     */
+    private volatile LongAdder[] buckets;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        getBuckets()[bucketIndex(nanos)].increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket containing the given quantile (0 to 1) of recorded values.
+     */
+    public long getValueAtQuantile(double quantile) {
+        LongAdder[] buckets = this.buckets;
+        if (buckets == null) return 0;
+
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Calls the consumer with the upper bound and count of every non-empty bucket, in ascending order.
+     */
+    public void forEachBucket(BucketConsumer consumer) {
+        LongAdder[] buckets = this.buckets;
+        if (buckets == null) return;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = buckets[i].sum();
+            if (bucketCount > 0) {
+                consumer.accept(bucketUpperBound(i), bucketCount);
+            }
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     * Values recorded concurrently with a reset may be partially kept.
+     */
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        LongAdder[] buckets = this.buckets;
+        if (buckets != null) {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+
+    private LongAdder[] getBuckets() {
+        LongAdder[] buckets = this.buckets;
+        if (buckets == null) {
+            synchronized (this) {
+                buckets = this.buckets;
+                if (buckets == null) {
+                    buckets = new LongAdder[BUCKET_COUNT];
+                    for (int i = 0; i < BUCKET_COUNT; i++) {
+                        buckets[i] = new LongAdder();
+                    }
+                    this.buckets = buckets;
+                }
+            }
+        }
+        return buckets;
+    }
+
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && nanos >= 1L << (MAX_EXPONENT + 1)) return BUCKET_COUNT - 1;
+
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(long upperBoundNanos, long count);
+    }
+}
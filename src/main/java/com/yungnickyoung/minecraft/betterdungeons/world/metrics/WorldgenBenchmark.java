@@ -0,0 +1,301 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.metrics;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructures;
+import net.minecraft.command.CommandSource;
+import net.minecraft.util.text.StringTextComponent;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.settings.DimensionStructuresSettings;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
+import net.minecraft.world.server.ServerWorld;
+
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * End-to-end world generation benchmark.
+ *
+ * Force-generates an N×N chunk region with every Better Dungeons type enabled, then one more region per type
+ * with that type switched off, and reports chunks per second, time spent in our structures, peak heap and
+ * allocation rate for each pass. Comparing the passes gives the cost of each dungeon type.
+ *
+ * Each pass generates a fresh region far from spawn, so terrain differs between passes.
+ * Larger regions average this out. Chunks are generated a few at a time on the server thread,
+ * spread over ticks so that the server keeps ticking and the watchdog stays quiet.
+ *
+ * All methods must be called on the server thread.
+ */
+public class WorldgenBenchmark {
+    /**
+     * Minimum chunk distance of benchmark regions from the origin, so that they are unlikely to be generated already.
+     */
+    private static final int MIN_REGION_DISTANCE = 100000;
+
+    /**
+     * Chunks left between the regions of consecutive passes, so that dungeons from one pass don't reach into the next.
+     */
+    private static final int REGION_GAP = 16;
+
+    /**
+     * Time spent generating chunks each tick.
+     */
+    private static final long TICK_BUDGET_NANOS = 40_000_000L;
+
+    @Nullable
+    private static WorldgenBenchmark running;
+
+    private final CommandSource source;
+    private final ServerWorld world;
+    private final int size;
+    private final int originX;
+    private final int originZ;
+    private final Map<String, Structure<?>> structures;
+    private final Map<Structure<?>, StructureSeparationSettings> originalSeparationSettings;
+    private final boolean metricsWereEnabled;
+    private final List<Pass> passes = new ArrayList<>();
+
+    private int passIndex;
+    private int chunkIndex;
+
+    private WorldgenBenchmark(CommandSource source, ServerWorld world, int size, Map<String, Structure<?>> structures) {
+        this.source = source;
+        this.world = world;
+        this.size = size;
+        this.structures = structures;
+        this.originalSeparationSettings = getStructureSettings().field_236193_d_;
+        this.metricsWereEnabled = GenerationMetrics.isEnabled();
+
+        Random random = new Random();
+        this.originX = MIN_REGION_DISTANCE + random.nextInt(MIN_REGION_DISTANCE);
+        this.originZ = random.nextInt(2 * MIN_REGION_DISTANCE) - MIN_REGION_DISTANCE;
+
+        this.passes.add(new Pass("all dungeons", null));
+        structures.forEach((name, structure) -> this.passes.add(new Pass("without " + name, name)));
+    }
+
+    public static boolean isRunning() {
+        return running != null;
+    }
+
+    /**
+     * Starts a benchmark of the given world, reporting progress and results to the given source.
+     * Returns false if no Better Dungeons are enabled in the world.
+     */
+    public static boolean start(CommandSource source, ServerWorld world, int size) {
+        if (running != null) {
+            throw new IllegalStateException("A worldgen benchmark is already running");
+        }
+
+        // Only types that generate in this world can be benchmarked
+        Map<String, Structure<?>> structures = new LinkedHashMap<>();
+        structures.put("small_dungeon", BDModStructures.SMALL_DUNGEON.get());
+        structures.put("spider_dungeon", BDModStructures.SPIDER_DUNGEON.get());
+        structures.put("skeleton_dungeon", BDModStructures.SKELETON_DUNGEON.get());
+        structures.put("zombie_dungeon", BDModStructures.ZOMBIE_DUNGEON.get());
+        DimensionStructuresSettings settings = world.getChunkProvider().getChunkGenerator().func_235957_b_();
+        structures.values().removeIf(structure -> settings.func_236197_a_(structure) == null);
+        if (structures.isEmpty()) {
+            return false;
+        }
+
+        running = new WorldgenBenchmark(source, world, size, structures);
+        GenerationMetrics.setEnabled(true);
+        running.beginPass();
+        return true;
+    }
+
+    /**
+     * Stops the running benchmark, if any, restoring the world's structure settings.
+     * Returns false if no benchmark was running.
+     */
+    public static boolean cancel() {
+        WorldgenBenchmark benchmark = running;
+        if (benchmark == null) return false;
+        benchmark.stop();
+        return true;
+    }
+
+    /**
+     * Generates chunks of the running benchmark for up to the tick budget.
+     */
+    public static void tick() {
+        WorldgenBenchmark benchmark = running;
+        if (benchmark != null) {
+            benchmark.generateChunks();
+        }
+    }
+
+    private void generateChunks() {
+        Pass pass = passes.get(passIndex);
+        long tickStart = System.nanoTime();
+        int regionX = originX + passIndex * (size + REGION_GAP);
+
+        while (chunkIndex < size * size && System.nanoTime() - tickStart < TICK_BUDGET_NANOS) {
+            long chunkStart = System.nanoTime();
+            world.getChunk(regionX + chunkIndex % size, originZ + chunkIndex / size);
+            pass.generationNanos += System.nanoTime() - chunkStart;
+            chunkIndex++;
+        }
+
+        if (chunkIndex == size * size) {
+            endPass();
+            if (++passIndex < passes.size()) {
+                beginPass();
+            } else {
+                reportSummary();
+                stop();
+            }
+        }
+    }
+
+    private void beginPass() {
+        Pass pass = passes.get(passIndex);
+        chunkIndex = 0;
+
+        // Switch off the pass's dungeon type by removing its separation settings, as a dimension whitelist would
+        Map<Structure<?>, StructureSeparationSettings> separationSettings = new HashMap<>(originalSeparationSettings);
+        if (pass.disabledType != null) {
+            separationSettings.remove(structures.get(pass.disabledType));
+        }
+        getStructureSettings().field_236193_d_ = separationSettings;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        pass.allocatedBytes = getAllocatedBytes();
+        pass.structureNanos.putAll(getStructureNanos());
+        pass.wallNanos = System.nanoTime();
+
+        sendFeedback(String.format(Locale.ROOT, "Benchmark pass %d/%d (%s): generating %d chunks from chunk [%d, %d]",
+            passIndex + 1, passes.size(), pass.name, size * size, originX + passIndex * (size + REGION_GAP), originZ));
+    }
+
+    private void endPass() {
+        Pass pass = passes.get(passIndex);
+        pass.wallNanos = System.nanoTime() - pass.wallNanos;
+
+        long allocatedBytes = getAllocatedBytes();
+        pass.allocatedBytes = pass.allocatedBytes < 0 || allocatedBytes < 0 ? -1 : Math.max(0, allocatedBytes - pass.allocatedBytes);
+
+        getStructureNanos().forEach((name, nanos) -> pass.structureNanos.put(name, nanos - pass.structureNanos.getOrDefault(name, 0L)));
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pass.peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        sendFeedback(pass.describe(size * size));
+        for (Map.Entry<String, Long> entry : pass.structureNanos.entrySet()) {
+            if (entry.getValue() > 0) {
+                sendFeedback(String.format(Locale.ROOT, "  %s: %.1f ms", entry.getKey(), entry.getValue() / 1e6));
+            }
+        }
+    }
+
+    /**
+     * Reports the extra generation time per chunk caused by each dungeon type, compared to the pass without it.
+     */
+    private void reportSummary() {
+        int chunks = size * size;
+        double allNanosPerChunk = (double) passes.get(0).generationNanos / chunks;
+        sendFeedback(String.format(Locale.ROOT, "Benchmark done. All dungeons: %.2f ms per chunk", allNanosPerChunk / 1e6));
+
+        for (Pass pass : passes.subList(1, passes.size())) {
+            double nanosPerChunk = (double) pass.generationNanos / chunks;
+            sendFeedback(String.format(Locale.ROOT, "  %s costs %+.2f ms per chunk (%+.1f%%)",
+                pass.disabledType,
+                (allNanosPerChunk - nanosPerChunk) / 1e6,
+                (allNanosPerChunk / nanosPerChunk - 1) * 100));
+        }
+    }
+
+    private void stop() {
+        getStructureSettings().field_236193_d_ = originalSeparationSettings;
+        GenerationMetrics.setEnabled(metricsWereEnabled);
+        running = null;
+    }
+
+    private DimensionStructuresSettings getStructureSettings() {
+        return world.getChunkProvider().getChunkGenerator().func_235957_b_();
+    }
+
+    private void sendFeedback(String message) {
+        BetterDungeons.LOGGER.info(message);
+        source.sendFeedback(new StringTextComponent(message), true);
+    }
+
+    /**
+     * Returns the time spent assembling and placing each of our dungeon types so far, across all threads.
+     */
+    private Map<String, Long> getStructureNanos() {
+        Map<String, Long> structureNanos = new LinkedHashMap<>();
+        for (String name : structures.keySet()) {
+            structureNanos.put(name,
+                GenerationMetrics.histogram(GenerationMetrics.STARTS, name).getTotalNanos() +
+                GenerationMetrics.histogram(GenerationMetrics.PLACEMENT, name).getTotalNanos());
+        }
+        return structureNanos;
+    }
+
+    /**
+     * Returns the bytes allocated so far by all live threads, or -1 if the JVM doesn't support measuring it.
+     * Allocations of threads that exit during a pass are lost, so the rate is a lower bound.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) return -1;
+
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) return -1;
+
+        long total = 0;
+        for (long bytes : allocationBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    private static class Pass {
+        private final String name;
+        @Nullable
+        private final String disabledType;
+
+        private final Map<String, Long> structureNanos = new LinkedHashMap<>();
+        private long generationNanos;
+        private long wallNanos;
+        private long allocatedBytes;
+        private long peakHeapBytes;
+
+        private Pass(String name, @Nullable String disabledType) {
+            this.name = name;
+            this.disabledType = disabledType;
+        }
+
+        private String describe(int chunks) {
+            long totalStructureNanos = structureNanos.values().stream().mapToLong(Long::longValue).sum();
+            return String.format(Locale.ROOT,
+                "[%s] %d chunks in %.1f s: %.1f chunks/s | dungeons %.1f ms (%.1f%% of generation time, summed over worldgen threads) | peak heap %d MB | allocation %s",
+                name,
+                chunks,
+                generationNanos / 1e9,
+                chunks / (generationNanos / 1e9),
+                totalStructureNanos / 1e6,
+                100.0 * totalStructureNanos / generationNanos,
+                peakHeapBytes >> 20,
+                allocatedBytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.0f MB/s", (allocatedBytes / 1048576.0) / (wallNanos / 1e9)));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.world.gen.feature.template.Template;
+
+import javax.annotation.Nullable;
+
+/**
+ * Java Flight Recorder events for dungeon generation, so that recordings can attribute
+ * generation time to specific dungeons, pieces and processors.
+ *
+ * Each begin method returns an opaque event handle, or null if no recording has enabled the event.
+ * The handle must be passed to the matching commit method once the work is done.
+ *
+ * On JVMs without Flight Recorder, every method does nothing. The jdk.jfr classes are only
+ * touched from {@link JfrEvents}, which is never loaded on those JVMs. Whether they are present is checked once, when this class loads.
+ * Java 8 only ships Flight Recorder from 8u262 on, so events need at least that runtime, and building the mod needs at least that JDK.
+ */
+public class FlightRecorderEvents {
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    @Nullable
+    public static Object beginStructureStart() {
+        return AVAILABLE ? JfrEvents.beginStructureStart() : null;
+    }
+
+    /**
+     * Commits a structure start assembly event.
+     */
+    public static void commitStructureStart(@Nullable Object event, String dungeonType, int chunkX, int chunkZ, int pieceCount, MutableBoundingBox bounds) {
+        if (event != null) {
+            JfrEvents.commitStructureStart(event, dungeonType, chunkX, chunkZ, pieceCount, getVolume(bounds));
+        }
+    }
+
+    @Nullable
+    public static Object beginPiecePlacement() {
+        return AVAILABLE ? JfrEvents.beginPiecePlacement() : null;
+    }
+
+    /**
+     * Commits a piece placement event for a single chunk.
+     * The block count is the number of positions of the piece's bounds lying within the chunk being generated.
+     */
+    public static void commitPiecePlacement(@Nullable Object event, String dungeonType, String piece, ChunkPos chunkPos, MutableBoundingBox pieceBounds, MutableBoundingBox chunkBox) {
+        if (event != null) {
+            JfrEvents.commitPiecePlacement(event, dungeonType, piece, chunkPos.x, chunkPos.z, getIntersectionVolume(pieceBounds, chunkBox));
+        }
+    }
+
+    @Nullable
+    public static Object beginProcessor() {
+        return AVAILABLE ? JfrEvents.beginProcessor() : null;
+    }
+
+    /**
+     * Commits a processor event for a single block.
+     */
+    public static void commitProcessor(@Nullable Object event, String dungeonType, String processor, Template.BlockInfo input, @Nullable Template.BlockInfo output) {
+        if (event != null) {
+            JfrEvents.commitProcessor(event, dungeonType, processor, input, output);
+        }
+    }
+
+    private static long getVolume(MutableBoundingBox box) {
+        return (long) box.getXSize() * box.getYSize() * box.getZSize();
+    }
+
+    private static long getIntersectionVolume(MutableBoundingBox a, MutableBoundingBox b) {
+        long xSize = Math.min(a.maxX, b.maxX) - Math.max(a.minX, b.minX) + 1;
+        long ySize = Math.min(a.maxY, b.maxY) - Math.max(a.minY, b.minY) + 1;
+        long zSize = Math.min(a.maxZ, b.maxZ) - Math.max(a.minZ, b.minZ) + 1;
+        return xSize <= 0 || ySize <= 0 || zSize <= 0 ? 0 : xSize * ySize * zSize;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            Class.forName("jdk.jfr.FlightRecorder", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            BetterDungeons.LOGGER.debug("Java Flight Recorder is not available (it needs Java 8u262 or newer). Better Dungeons generation events are disabled.");
+            return false;
+        }
+    }
+}
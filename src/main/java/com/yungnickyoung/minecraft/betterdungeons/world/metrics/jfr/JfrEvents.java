@@ -0,0 +1,165 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import net.minecraft.world.gen.feature.template.Template;
+
+import javax.annotation.Nullable;
+
+/**
+ * The Flight Recorder events themselves. Only loaded once {@link FlightRecorderEvents} has checked that JFR is present.
+ *
+ * Until Flight Recorder has been initialized, i.e. until a recording has been started,
+ * the begin methods return without allocating anything.
+ */
+class JfrEvents {
+    @Nullable
+    static Object beginStructureStart() {
+        if (!FlightRecorder.isInitialized()) return null;
+        StructureStartEvent event = new StructureStartEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void commitStructureStart(Object handle, String dungeonType, int chunkX, int chunkZ, int pieceCount, long volume) {
+        StructureStartEvent event = (StructureStartEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dungeonType = dungeonType;
+            event.chunkX = chunkX;
+            event.chunkZ = chunkZ;
+            event.pieceCount = pieceCount;
+            event.volume = volume;
+            event.commit();
+        }
+    }
+
+    @Nullable
+    static Object beginPiecePlacement() {
+        if (!FlightRecorder.isInitialized()) return null;
+        PiecePlacementEvent event = new PiecePlacementEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void commitPiecePlacement(Object handle, String dungeonType, String piece, int chunkX, int chunkZ, long blockCount) {
+        PiecePlacementEvent event = (PiecePlacementEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dungeonType = dungeonType;
+            event.piece = piece;
+            event.chunkX = chunkX;
+            event.chunkZ = chunkZ;
+            event.blockCount = blockCount;
+            event.commit();
+        }
+    }
+
+    @Nullable
+    static Object beginProcessor() {
+        if (!FlightRecorder.isInitialized()) return null;
+        ProcessorEvent event = new ProcessorEvent();
+        if (!event.isEnabled()) return null;
+        event.begin();
+        return event;
+    }
+
+    static void commitProcessor(Object handle, String dungeonType, String processor, Template.BlockInfo input, @Nullable Template.BlockInfo output) {
+        ProcessorEvent event = (ProcessorEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dungeonType = dungeonType;
+            event.processor = processor;
+            event.chunkX = input.pos.getX() >> 4;
+            event.chunkZ = input.pos.getZ() >> 4;
+            event.y = input.pos.getY();
+            event.inputBlock = String.valueOf(input.state.getBlock().getRegistryName());
+            event.outputBlock = output == null ? null : String.valueOf(output.state.getBlock().getRegistryName());
+            event.commit();
+        }
+    }
+
+    @Name("betterdungeons.StructureStart")
+    @Label("Dungeon Assembly")
+    @Description("Assembly of a Better Dungeons structure start, including all of its pieces")
+    @Category({"Better Dungeons", "World Generation"})
+    @StackTrace(false)
+    static class StructureStartEvent extends Event {
+        @Label("Dungeon Type")
+        String dungeonType;
+
+        @Label("Chunk X")
+        int chunkX;
+
+        @Label("Chunk Z")
+        int chunkZ;
+
+        @Label("Piece Count")
+        int pieceCount;
+
+        @Label("Volume")
+        @Description("Number of block positions within the dungeon's bounding box")
+        long volume;
+    }
+
+    @Name("betterdungeons.PiecePlacement")
+    @Label("Dungeon Piece Placement")
+    @Description("Placement of one Better Dungeons structure piece in one chunk")
+    @Category({"Better Dungeons", "World Generation"})
+    @StackTrace(false)
+    static class PiecePlacementEvent extends Event {
+        @Label("Dungeon Type")
+        String dungeonType;
+
+        @Label("Piece")
+        String piece;
+
+        @Label("Chunk X")
+        int chunkX;
+
+        @Label("Chunk Z")
+        int chunkZ;
+
+        @Label("Block Count")
+        @Description("Number of block positions of the piece within the chunk")
+        long blockCount;
+    }
+
+    @Name("betterdungeons.Processor")
+    @Label("Dungeon Processor")
+    @Description("One call to an expensive Better Dungeons structure processor")
+    @Category({"Better Dungeons", "World Generation"})
+    @StackTrace(false)
+    @Threshold("100 us")
+    static class ProcessorEvent extends Event {
+        @Label("Dungeon Type")
+        @Description("Dungeon type the processor belongs to, or shared if several dungeon types use it")
+        String dungeonType;
+
+        @Label("Processor")
+        String processor;
+
+        @Label("Chunk X")
+        int chunkX;
+
+        @Label("Chunk Z")
+        int chunkZ;
+
+        @Label("Y")
+        int y;
+
+        @Label("Input Block")
+        String inputBlock;
+
+        @Label("Output Block")
+        String outputBlock;
+    }
+}
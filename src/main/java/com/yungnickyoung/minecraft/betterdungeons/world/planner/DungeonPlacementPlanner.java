@@ -0,0 +1,207 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.planner;
+
+import net.minecraft.util.SharedSeedRandom;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.provider.BiomeProvider;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+
+/**
+ * Computes where dungeon starts will be attempted in a region without generating any chunks.
+ *
+ * This mirrors the vanilla placement logic for our structures: one candidate chunk per spacing region,
+ * chosen with the structure's salt, and kept only if the biome at that chunk allows the structure
+ * and the dungeon type's terrain check, if any, accepts the chunk.
+ * Candidates may still fail during assembly, so the result is an upper bound on the dungeons in the area.
+ *
+ * Regions are scanned in parallel on the common fork-join pool, in square tiles of regions.
+ * Each tile's candidates are handed to the caller as soon as it and every tile before it are done,
+ * so only a few tiles are held in memory at once, and results always come out in the same order for the same inputs.
+ */
+public class DungeonPlacementPlanner {
+    /**
+     * Width of a tile, in spacing regions.
+     */
+    private static final int TILE_REGIONS = 32;
+
+    /**
+     * Maximum number of tiles scanned ahead of the caller, per thread of the common pool.
+     */
+    private static final int TILES_AHEAD_PER_THREAD = 2;
+
+    /**
+     * Plans candidate starts for a single dungeon type, passing them to the given sink one tile at a time.
+     * The sink is called on the calling thread.
+     * @param seed the world seed
+     * @param biomeProvider a biome provider seeded with the same world seed
+     * @param target the dungeon type to plan
+     * @param minChunkX minimum chunk x, inclusive
+     * @param minChunkZ minimum chunk z, inclusive
+     * @param maxChunkX maximum chunk x, inclusive
+     * @param maxChunkZ maximum chunk z, inclusive
+     * @param sink receives the candidates of each tile, in order
+     */
+    public static void plan(long seed, BiomeProvider biomeProvider, Target target, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, CandidateSink sink) throws IOException {
+        int spacing = target.separationSettings.func_236668_a_();
+        int minRegionX = Math.floorDiv(minChunkX, spacing);
+        int minRegionZ = Math.floorDiv(minChunkZ, spacing);
+        int maxRegionX = Math.floorDiv(maxChunkX, spacing) + 1;
+        int maxRegionZ = Math.floorDiv(maxChunkZ, spacing) + 1;
+
+        int maxTilesAhead = ForkJoinPool.getCommonPoolParallelism() * TILES_AHEAD_PER_THREAD;
+        Deque<ForkJoinTask<List<Candidate>>> tiles = new ArrayDeque<>();
+
+        try {
+            for (int tileX = minRegionX; tileX < maxRegionX; tileX += TILE_REGIONS) {
+                for (int tileZ = minRegionZ; tileZ < maxRegionZ; tileZ += TILE_REGIONS) {
+                    RegionScan scan = new RegionScan(seed, biomeProvider, target,
+                        minChunkX, minChunkZ, maxChunkX, maxChunkZ,
+                        tileX, tileZ, Math.min(tileX + TILE_REGIONS, maxRegionX), Math.min(tileZ + TILE_REGIONS, maxRegionZ));
+                    tiles.add(ForkJoinPool.commonPool().submit(scan::scan));
+
+                    if (tiles.size() >= maxTilesAhead) {
+                        sink.accept(tiles.poll().join());
+                    }
+                }
+            }
+
+            while (!tiles.isEmpty()) {
+                sink.accept(tiles.poll().join());
+            }
+        } finally {
+            // Don't leave tiles running if the sink failed
+            tiles.forEach(tile -> tile.cancel(false));
+        }
+    }
+
+    /**
+     * Returns the chunk in which the given spacing region attempts its start, packed as {chunkX, chunkZ}.
+     * Matches Structure#func_236392_a_ for linearly-separated structures.
+     */
+    public static int[] getCandidateChunk(long seed, StructureSeparationSettings separationSettings, int regionX, int regionZ, SharedSeedRandom random) {
+        int spacing = separationSettings.func_236668_a_();
+        int separation = separationSettings.func_236671_b_();
+        random.setLargeFeatureSeedWithSalt(seed, regionX, regionZ, separationSettings.func_236673_c_());
+        int offsetX = random.nextInt(spacing - separation);
+        int offsetZ = random.nextInt(spacing - separation);
+        return new int[]{regionX * spacing + offsetX, regionZ * spacing + offsetZ};
+    }
+
+    /**
+     * A dungeon type to plan, along with its placement settings and biome check.
+     */
+    public static class Target {
+        public final String name;
+        public final StructureSeparationSettings separationSettings;
+        public final Predicate<Biome> biomePredicate;
+        public final TerrainCheck terrainCheck;
+
+        public Target(String name, StructureSeparationSettings separationSettings, Predicate<Biome> biomePredicate) {
+            this(name, separationSettings, biomePredicate, TerrainCheck.NONE);
+        }
+
+        public Target(String name, StructureSeparationSettings separationSettings, Predicate<Biome> biomePredicate, TerrainCheck terrainCheck) {
+            this.name = name;
+            this.separationSettings = separationSettings;
+            this.biomePredicate = biomePredicate;
+            this.terrainCheck = terrainCheck;
+        }
+    }
+
+    /**
+     * Checks the terrain at a candidate chunk, the same way its structure start does before assembly.
+     * Must be safe to call from several threads at once.
+     */
+    @FunctionalInterface
+    public interface TerrainCheck {
+        TerrainCheck NONE = (chunkX, chunkZ, random) -> true;
+
+        /**
+         * @param random seeded exactly like the random of a structure start in the given chunk
+         */
+        boolean test(int chunkX, int chunkZ, Random random);
+    }
+
+    public static class Candidate {
+        public final String type;
+        public final int chunkX;
+        public final int chunkZ;
+
+        public Candidate(String type, int chunkX, int chunkZ) {
+            this.type = type;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+
+    /**
+     * Receives planned candidates.
+     */
+    @FunctionalInterface
+    public interface CandidateSink {
+        void accept(List<Candidate> candidates) throws IOException;
+    }
+
+    private static class RegionScan {
+        private final long seed;
+        private final BiomeProvider biomeProvider;
+        private final Target target;
+        private final int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+
+        // Region bounds handled by this scan. Min inclusive, max exclusive.
+        private final int minRegionX, minRegionZ, maxRegionX, maxRegionZ;
+
+        private RegionScan(long seed, BiomeProvider biomeProvider, Target target,
+                           int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ,
+                           int minRegionX, int minRegionZ, int maxRegionX, int maxRegionZ) {
+            this.seed = seed;
+            this.biomeProvider = biomeProvider;
+            this.target = target;
+            this.minChunkX = minChunkX;
+            this.minChunkZ = minChunkZ;
+            this.maxChunkX = maxChunkX;
+            this.maxChunkZ = maxChunkZ;
+            this.minRegionX = minRegionX;
+            this.minRegionZ = minRegionZ;
+            this.maxRegionX = maxRegionX;
+            this.maxRegionZ = maxRegionZ;
+        }
+
+        private List<Candidate> scan() {
+            List<Candidate> candidates = new ArrayList<>();
+            SharedSeedRandom random = new SharedSeedRandom();
+
+            for (int regionX = minRegionX; regionX < maxRegionX; regionX++) {
+                for (int regionZ = minRegionZ; regionZ < maxRegionZ; regionZ++) {
+                    int[] chunk = getCandidateChunk(seed, target.separationSettings, regionX, regionZ, random);
+                    int chunkX = chunk[0];
+                    int chunkZ = chunk[1];
+
+                    // Edge regions may place their candidate outside the requested area
+                    if (chunkX < minChunkX || chunkX > maxChunkX || chunkZ < minChunkZ || chunkZ > maxChunkZ) continue;
+
+                    // Same biome sample the chunk generator uses when placing structure starts
+                    Biome biome = biomeProvider.getNoiseBiome((chunkX << 2) + 2, 0, (chunkZ << 2) + 2);
+                    if (!target.biomePredicate.test(biome)) continue;
+
+                    // Same random the structure start rolls its starting height with
+                    random.setLargeFeatureSeed(seed, chunkX, chunkZ);
+                    if (target.terrainCheck.test(chunkX, chunkZ, random)) {
+                        candidates.add(new Candidate(target.name, chunkX, chunkZ));
+                    }
+                }
+            }
+
+            return candidates;
+        }
+    }
+}
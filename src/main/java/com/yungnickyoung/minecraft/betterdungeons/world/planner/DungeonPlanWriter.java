@@ -0,0 +1,147 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.planner;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraftforge.common.util.Constants;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes planned dungeon candidates to disk as they are planned, one row or tag per candidate.
+ * Candidates are written straight through, so the writer holds none of them in memory.
+ */
+public abstract class DungeonPlanWriter implements Closeable {
+    public enum Format {
+        CSV("csv"),
+        NBT("nbt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return this.extension;
+        }
+    }
+
+    protected int count;
+
+    public static DungeonPlanWriter open(Path file, Format format, long seed) throws IOException {
+        Files.createDirectories(file.getParent());
+        return format == Format.CSV ? new CsvWriter(file) : new NbtWriter(file, seed);
+    }
+
+    public abstract void write(List<DungeonPlacementPlanner.Candidate> candidates) throws IOException;
+
+    /**
+     * Returns the number of candidates written so far.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    private static class CsvWriter extends DungeonPlanWriter {
+        private final BufferedWriter writer;
+
+        private CsvWriter(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            this.writer.write("type,chunkX,chunkZ,blockX,blockZ");
+            this.writer.newLine();
+        }
+
+        @Override
+        public void write(List<DungeonPlacementPlanner.Candidate> candidates) throws IOException {
+            for (DungeonPlacementPlanner.Candidate candidate : candidates) {
+                writer.write(candidate.type + "," + candidate.chunkX + "," + candidate.chunkZ + "," + ((candidate.chunkX << 4) + 7) + "," + ((candidate.chunkZ << 4) + 7));
+                writer.newLine();
+                this.count++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the same compressed NBT as CompressedStreamTools#writeCompressed would for a root tag holding
+     * the seed and a list of candidate tags.
+     *
+     * NBT lists are prefixed with their length, which isn't known until planning is done.
+     * The tag is therefore first written uncompressed to a temporary file, whose list length is filled in on close
+     * before the file is compressed into place.
+     */
+    private static class NbtWriter extends DungeonPlanWriter {
+        private final Path file;
+        private final Path tempFile;
+        private final DataOutputStream output;
+        private final long countOffset;
+
+        private NbtWriter(Path file, long seed) throws IOException {
+            this.file = file;
+            this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.tempFile)));
+
+            // Root compound
+            output.writeByte(Constants.NBT.TAG_COMPOUND);
+            output.writeUTF("");
+
+            output.writeByte(Constants.NBT.TAG_LONG);
+            output.writeUTF("Seed");
+            output.writeLong(seed);
+
+            // Candidate list, whose length is filled in on close
+            output.writeByte(Constants.NBT.TAG_LIST);
+            output.writeUTF("Candidates");
+            output.writeByte(Constants.NBT.TAG_COMPOUND);
+            this.countOffset = output.size();
+            output.writeInt(0);
+        }
+
+        @Override
+        public void write(List<DungeonPlacementPlanner.Candidate> candidates) throws IOException {
+            for (DungeonPlacementPlanner.Candidate candidate : candidates) {
+                CompoundNBT tag = new CompoundNBT();
+                tag.putString("Type", candidate.type);
+                tag.putInt("ChunkX", candidate.chunkX);
+                tag.putInt("ChunkZ", candidate.chunkZ);
+                tag.write(output);
+                this.count++;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                // End of root compound
+                output.writeByte(Constants.NBT.TAG_END);
+                output.close();
+
+                try (RandomAccessFile raw = new RandomAccessFile(tempFile.toFile(), "rw")) {
+                    raw.seek(countOffset);
+                    raw.writeInt(this.count);
+                }
+
+                try (OutputStream compressed = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                    Files.copy(tempFile, compressed);
+                }
+            } finally {
+                output.close();
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.processor;
+
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.LatencyHistogram;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr.FlightRecorderEvents;
+import mcp.MethodsReturnNonnullByDefault;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldReader;
+import net.minecraft.world.gen.feature.template.PlacementSettings;
+import net.minecraft.world.gen.feature.template.StructureProcessor;
+import net.minecraft.world.gen.feature.template.Template;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Base class for our processors. Times each call to the processor when generation metrics are enabled,
+ * and emits Flight Recorder events for expensive processors.
+ * Subclasses implement {@link #processBlock} instead of {@code process}.
+ */
+@MethodsReturnNonnullByDefault
+public abstract class InstrumentedStructureProcessor extends StructureProcessor {
+    /**
+     * Dungeon type reported for processors shared by several dungeon types.
+     */
+    private static final String SHARED_DUNGEON_TYPE = "shared";
+
+    private final String name = getClass().getSimpleName();
+    private final String dungeonType = getDungeonType(getClass());
+    private final LatencyHistogram histogram = GenerationMetrics.histogram(GenerationMetrics.PROCESSORS, name);
+
+    @ParametersAreNonnullByDefault
+    @Override
+    public final Template.BlockInfo process(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+        long startTime = GenerationMetrics.start();
+        Object event = emitsFlightRecorderEvents() ? FlightRecorderEvents.beginProcessor() : null;
+        Template.BlockInfo result = processBlock(world, jigsawPiecePos, jigsawPieceBottomCenterPos, blockInfoLocal, blockInfoGlobal, structurePlacementData, template);
+        GenerationMetrics.stop(histogram, startTime);
+        FlightRecorderEvents.commitProcessor(event, dungeonType, name, blockInfoGlobal, result);
+        return result;
+    }
+
+    /**
+     * Whether or not this processor emits a Flight Recorder event for each block it processes.
+     * Only enabled for processors that do enough work per block for the event to be worth its cost.
+     */
+    protected boolean emitsFlightRecorderEvents() {
+        return false;
+    }
+
+    /**
+     * Processors specific to one dungeon type live in a subpackage named after it, e.g. {@code processor.zombie_dungeon}.
+     * Processors directly in this package are shared.
+     */
+    private static String getDungeonType(Class<?> processorClass) {
+        String basePackage = InstrumentedStructureProcessor.class.getPackage().getName();
+        String processorPackage = processorClass.getPackage().getName();
+        return processorPackage.startsWith(basePackage + ".")
+            ? processorPackage.substring(basePackage.length() + 1)
+            : SHARED_DUNGEON_TYPE;
+    }
+
+    @ParametersAreNonnullByDefault
+    protected abstract Template.BlockInfo processBlock(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template);
+}
@@ -3,6 +3,7 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.SpawnerBlock;
 import net.minecraft.nbt.CompoundNBT;
@@ -12,7 +13,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -22,7 +22,7 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * Sets mob spawners to spawn the proper mob based on its spawner_mob JSON entry.
  */
 @MethodsReturnNonnullByDefault
-public class MobSpawnerProcessor extends StructureProcessor {
+public class MobSpawnerProcessor extends InstrumentedStructureProcessor {
     public static final Codec<MobSpawnerProcessor> CODEC = RecordCodecBuilder.create(codecBuilder -> codecBuilder
         .group(
             ResourceLocation.CODEC
@@ -41,7 +41,7 @@ public class MobSpawnerProcessor extends StructureProcessor {
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() instanceof SpawnerBlock) {
             // Update the spawner block's NBT
             // SpawnData
@@ -58,6 +58,9 @@ public class MobSpawnerProcessor extends StructureProcessor {
             spawnPotentials.put("Weight", IntNBT.valueOf(1));
             blockInfoGlobal.nbt.getList("SpawnPotentials", spawnPotentials.getId()).clear();
             blockInfoGlobal.nbt.getList("SpawnPotentials", spawnPotentials.getId()).add(0, spawnPotentials);
+
+            // Allow the spawner to go dormant while no players are nearby
+            DormantSpawnerIndex.markDungeonSpawner(blockInfoGlobal.nbt);
         }
         return blockInfoGlobal;
     }
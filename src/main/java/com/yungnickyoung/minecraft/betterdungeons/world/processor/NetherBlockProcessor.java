@@ -1,8 +1,9 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.processor;
 
 import com.mojang.serialization.Codec;
-import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.LanternBlock;
@@ -10,21 +11,20 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 @MethodsReturnNonnullByDefault
-public class NetherBlockProcessor extends StructureProcessor {
+public class NetherBlockProcessor extends InstrumentedStructureProcessor {
     public static final NetherBlockProcessor INSTANCE = new NetherBlockProcessor();
     public static final Codec<NetherBlockProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
-        if (!BDConfig.general.enableNetherBlocks.get()) {
+    protected Template.BlockInfo processBlock(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+        if (BlockClassification.is(blockInfoGlobal.state, BlockClassification.SOUL_VARIANT) && !BDConfigSnapshot.get().enableNetherBlocks) {
             if (blockInfoGlobal.state.isIn(Blocks.SOUL_SAND) || blockInfoGlobal.state.isIn(Blocks.SOUL_SOIL)) {
                 blockInfoGlobal = new Template.BlockInfo(blockInfoGlobal.pos, Blocks.COARSE_DIRT.getDefaultState(), blockInfoGlobal.nbt);
             } else if (blockInfoGlobal.state.isIn(Blocks.SOUL_CAMPFIRE)) {
@@ -16,7 +16,6 @@ import net.minecraft.world.IWorldReader;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -26,13 +25,13 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * A patchwork fix for https://bugs.mojang.com/browse/MC-130584.
  */
 @MethodsReturnNonnullByDefault
-public class WaterloggedProcessor extends StructureProcessor {
+public class WaterloggedProcessor extends InstrumentedStructureProcessor {
     public static final WaterloggedProcessor INSTANCE = new WaterloggedProcessor();
     public static final Codec<WaterloggedProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         // Workaround for https://bugs.mojang.com/browse/MC-130584
         // Due to a hardcoded field in Templates, any waterloggable blocks in structures replacing water in the world will become waterlogged.
         // Idea of workaround is detect if we are placing a waterloggable block and if so, remove the water in the world instead.
@@ -65,6 +64,11 @@ public class WaterloggedProcessor extends StructureProcessor {
         return blockInfoGlobal;
     }
 
+    @Override
+    protected boolean emitsFlightRecorderEvents() {
+        return true;
+    }
+
     protected IStructureProcessorType<?> getType() {
         return BDModProcessors.WATERLOGGED_PROCESSOR;
     }
@@ -2,6 +2,7 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dung
 
 import com.mojang.serialization.Codec;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.Blocks;
@@ -11,7 +12,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -23,7 +23,7 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * Replaces them w/ stone bricks otherwise.
  */
 @MethodsReturnNonnullByDefault
-public class RuinedStoneBrickProcessor extends StructureProcessor {
+public class RuinedStoneBrickProcessor extends InstrumentedStructureProcessor {
     public static final RuinedStoneBrickProcessor INSTANCE = new RuinedStoneBrickProcessor();
     public static final Codec<RuinedStoneBrickProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
@@ -36,7 +36,7 @@ public class RuinedStoneBrickProcessor extends StructureProcessor {
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() == Blocks.YELLOW_STAINED_GLASS) {
             if (world.getBlockState(blockInfoGlobal.pos).isAir()) {
                 blockInfoGlobal = new Template.BlockInfo(blockInfoGlobal.pos, Blocks.CAVE_AIR.getDefaultState(), blockInfoGlobal.nbt);
@@ -2,11 +2,12 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dung
 
 import com.mojang.serialization.Codec;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.block.material.Material;
 import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
@@ -14,7 +15,6 @@ import net.minecraft.world.IWorldReader;
 import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -26,7 +26,7 @@ import java.util.Random;
  * Blue stained glass is used to mark the positions where the legs will spawn for simplicity.
  */
 @MethodsReturnNonnullByDefault
-public class SkeletonDungeonLegProcessor extends StructureProcessor {
+public class SkeletonDungeonLegProcessor extends InstrumentedStructureProcessor {
     public static final SkeletonDungeonLegProcessor INSTANCE = new SkeletonDungeonLegProcessor();
     public static final Codec<SkeletonDungeonLegProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
@@ -35,7 +35,7 @@ public class SkeletonDungeonLegProcessor extends StructureProcessor {
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() == Blocks.BLUE_STAINED_GLASS) {
             ChunkPos currentChunkPos = new ChunkPos(blockInfoGlobal.pos);
             IChunk currentChunk = worldReader.getChunk(currentChunkPos.x, currentChunkPos.z);
@@ -48,7 +48,7 @@ public class SkeletonDungeonLegProcessor extends StructureProcessor {
             // Generate vertical pillar down
             BlockPos.Mutable mutable = blockInfoGlobal.pos.down().toMutable();
             BlockState currBlock = worldReader.getBlockState(mutable);
-            while (mutable.getY() > 0 && (currBlock.getMaterial() == Material.AIR || currBlock.getMaterial() == Material.WATER || currBlock.getMaterial() == Material.LAVA)) {
+            while (mutable.getY() > 0 && BlockClassification.is(currBlock, BlockClassification.SUPPORT_REPLACEABLE)) {
                 currentChunk.setBlockState(mutable, COBBLE_SELECTOR.get(random), false);
                 mutable.move(Direction.DOWN);
                 currBlock = worldReader.getBlockState(mutable);
@@ -58,6 +58,11 @@ public class SkeletonDungeonLegProcessor extends StructureProcessor {
         return blockInfoGlobal;
     }
 
+    @Override
+    protected boolean emitsFlightRecorderEvents() {
+        return true;
+    }
+
     protected IStructureProcessorType<?> getType() {
         return BDModProcessors.SKELETON_DUNGEON_LEG_PROCESSOR;
     }
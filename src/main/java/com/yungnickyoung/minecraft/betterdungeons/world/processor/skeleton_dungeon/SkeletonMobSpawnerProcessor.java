@@ -2,6 +2,8 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.skeleton_dung
 
 import com.mojang.serialization.Codec;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.SpawnerBlock;
 import net.minecraft.nbt.CompoundNBT;
@@ -10,7 +12,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -21,13 +22,13 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * Also buffs spawners to spawn more enemies more frequently, at a greater distance.
  */
 @MethodsReturnNonnullByDefault
-public class SkeletonMobSpawnerProcessor extends StructureProcessor {
+public class SkeletonMobSpawnerProcessor extends InstrumentedStructureProcessor {
     public static final SkeletonMobSpawnerProcessor INSTANCE = new SkeletonMobSpawnerProcessor();
     public static final Codec<SkeletonMobSpawnerProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() instanceof SpawnerBlock) {
             // Update the spawner block's NBT
             // SpawnData
@@ -56,6 +57,9 @@ public class SkeletonMobSpawnerProcessor extends StructureProcessor {
 
             // Time between spawn attempts (default 800)
             blockInfoGlobal.nbt.putShort("MaxSpawnDelay", (short)650);
+
+            // Allow the spawner to go dormant while no players are nearby
+            DormantSpawnerIndex.markDungeonSpawner(blockInfoGlobal.nbt);
         }
         return blockInfoGlobal;
     }
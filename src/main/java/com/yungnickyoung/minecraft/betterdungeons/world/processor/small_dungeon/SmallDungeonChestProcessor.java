@@ -1,9 +1,10 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.processor.small_dungeon;
 
 import com.mojang.serialization.Codec;
-import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
 import com.yungnickyoung.minecraft.betterdungeons.world.DungeonContext;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.ChestBlock;
@@ -11,7 +12,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -22,21 +22,22 @@ import java.util.Random;
  * Replaces some chests with air, ensuring at least 1 per dungeon but no more than 2.
  */
 @MethodsReturnNonnullByDefault
-public class SmallDungeonChestProcessor extends StructureProcessor {
+public class SmallDungeonChestProcessor extends InstrumentedStructureProcessor {
     public static final SmallDungeonChestProcessor INSTANCE = new SmallDungeonChestProcessor();
     public static final Codec<SmallDungeonChestProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() instanceof ChestBlock) {
             // Fetch thread-local dungeon context
             DungeonContext context = DungeonContext.peek();
             int chestCount = DungeonContext.peek().getChestCount();
+            BDConfigSnapshot config = BDConfigSnapshot.get();
 
-            if (chestCount < BDConfig.smallDungeons.chestMinCount.get()) { // Ensure there is at least minimum amount of chests
+            if (chestCount < config.chestMinCount) { // Ensure there is at least minimum amount of chests
                 context.incrementChestCount();
-            } else if (chestCount < BDConfig.smallDungeons.chestMaxCount.get()) { // 20% chance of additional chest, per chest prop
+            } else if (chestCount < config.chestMaxCount) { // 20% chance of additional chest, per chest prop
                 Random random = structurePlacementData.getRandom(blockInfoGlobal.pos);
                 if (random.nextFloat() > .2f) {
                     return new Template.BlockInfo(blockInfoGlobal.pos, Blocks.CAVE_AIR.getDefaultState(), blockInfoGlobal.nbt);
@@ -2,8 +2,11 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeo
 
 import com.google.common.collect.Sets;
 import com.mojang.serialization.Codec;
-import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.GenerationThrottle;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.BlockState;
@@ -20,7 +23,6 @@ import net.minecraft.world.chunk.IChunk;
 import net.minecraft.world.gen.Heightmap;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -32,7 +34,7 @@ import java.util.Set;
  * Dynamically generates the main staircase when applicable.
  */
 @MethodsReturnNonnullByDefault
-public class ZombieMainStairsProcessor extends StructureProcessor {
+public class ZombieMainStairsProcessor extends InstrumentedStructureProcessor {
     public static final ZombieMainStairsProcessor INSTANCE = new ZombieMainStairsProcessor();
     public static final Codec<ZombieMainStairsProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
@@ -47,9 +49,13 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
     private static final BlockSetSelector COBBLE_SELECTOR = new BlockSetSelector(Blocks.COBBLESTONE.getDefaultState())
         .addBlock(Blocks.MOSSY_COBBLESTONE.getDefaultState(), 0.3f);
 
+    private static final Set<Material> REPLACEABLE_MATERIALS = Sets.newHashSet(
+        Material.ROCK, Material.ORGANIC, Material.EARTH, Material.SAND, Material.SNOW, Material.ICE
+    );
+
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader world, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() == Blocks.WARPED_STAIRS) { // Warped stairs are the marker for the main staircase
             Direction facing;
 
@@ -67,8 +73,10 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
                     facing = Direction.NORTH;
             }
 
+            BDConfigSnapshot config = BDConfigSnapshot.get();
+
             // Check if the surface is close enough to warrant a staircase
-            int maxLength = BDConfig.zombieDungeons.zombieDungeonMaxSurfaceStaircaseLength.get(); // Max distance our staircase can go horizontally
+            int maxLength = config.zombieDungeonMaxSurfaceStaircaseLength; // Max distance our staircase can go horizontally
 
             // The highest allowable position at the end of the staircase
             BlockPos maxSurfacePos = blockInfoGlobal.pos.offset(facing, maxLength).offset(Direction.UP, maxLength);
@@ -76,8 +84,8 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
             // Get the surface height at the end of the staircase
             int surfaceHeight = world.getHeight(Heightmap.Type.WORLD_SURFACE_WG, blockInfoGlobal.pos.offset(facing, maxLength)).getY();
 
-            // Don't spawn staircase if we won't penetrate the surface
-            if (surfaceHeight >= maxSurfacePos.getY()) {
+            // Don't spawn staircase if we won't penetrate the surface, or if the server is overloaded
+            if (surfaceHeight >= maxSurfacePos.getY() || GenerationThrottle.shouldSimplify(GenerationThrottle.ZOMBIE_SURFACE_STAIRCASE, blockInfoGlobal.pos)) {
                 blockInfoGlobal = new Template.BlockInfo(blockInfoGlobal.pos, Blocks.CAVE_AIR.getDefaultState(), blockInfoGlobal.nbt);
                 return blockInfoGlobal;
             }
@@ -85,129 +93,15 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
             // Begin spawning staircase
             Random random = structurePlacementData.getRandom(blockInfoGlobal.pos);
 
-            BlockPos.Mutable leftPos = new BlockPos(blockInfoGlobal.pos.offset(facing.rotateYCCW())).toMutable();
-            BlockPos.Mutable middlePos = new BlockPos(blockInfoGlobal.pos).toMutable();
-            BlockPos.Mutable rightPos = new BlockPos(blockInfoGlobal.pos.offset(facing.rotateY())).toMutable();
-            BlockPos.Mutable temp = new BlockPos.Mutable();
-            BlockState tempBlock;
-
-            for (int i = 0; i < maxLength; i++) {
-                int middleSurfaceHeight = world.getHeight(Heightmap.Type.WORLD_SURFACE_WG, middlePos).getY();
-
-                // Stop if we've broken the surface
-                if (middleSurfaceHeight < middlePos.getY()) {
-                    break;
-                }
-
-                // Set left stair
-                tempBlock = STAIR_SELECTOR.get(random);
-                if (!world.getBlockState(leftPos).isAir()) {
-                    if (world.getBlockState(leftPos.offset(facing)).getMaterial().isLiquid()) {
-                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), leftPos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    } else {
-                        this.setBlockState(world, tempBlock, leftPos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    }
-                }
+            // Sample everything the staircase reads up front, then build it from the snapshot
+            ZombieStaircaseProfile profile = ZombieStaircaseProfile.sample(world, blockInfoGlobal.pos, facing, maxLength);
+            buildStairs(world, profile, blockInfoGlobal.pos, facing, maxLength, random, structurePlacementData.getMirror(), structurePlacementData.getRotation());
 
-                // Set middle stair
-                tempBlock = STAIR_SELECTOR.get(random);
-                if (!world.getBlockState(middlePos).isAir()) {
-                    if (world.getBlockState(middlePos.offset(facing)).getMaterial().isLiquid()) {
-                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), middlePos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    } else {
-                        this.setBlockState(world, tempBlock, middlePos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    }
-                }
-
-                // Set right stair
-                tempBlock = STAIR_SELECTOR.get(random);
-                if (!world.getBlockState(rightPos).isAir()) {
-                    if (world.getBlockState(rightPos.offset(facing)).getMaterial().isLiquid()) {
-                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), rightPos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    } else {
-                        this.setBlockState(world, tempBlock, rightPos, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                    }
-                }
-
-                // Place air above stairs
-                for (int y = middlePos.getY() + 1; y <= middlePos.getY() + 3; y++) {
-                    // Left stairs
-                    temp.setPos(leftPos.getX(), y, leftPos.getZ());
-                    this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                    // Middle stairs
-                    temp.setPos(middlePos.getX(), y, middlePos.getZ());
-                    this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                    // Left stairs
-                    temp.setPos(rightPos.getX(), y, rightPos.getZ());
-                    this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-                }
-
-                // Chance of replacing a given block with cobblestone. Increases the further down we are.
-                float cobbleChance = (maxLength - i) / (float) maxLength;
-                cobbleChance = Math.max(cobbleChance, 0.25f); // Minimum 50% replacement rate at surface
-
-                // Replaceable blocks
-                Set<BlockState> replaceableBlocks = Sets.newHashSet(
-                    world.getBiome(leftPos).getGenerationSettings().getSurfaceBuilderConfig().getTop(),
-                    world.getBiome(leftPos).getGenerationSettings().getSurfaceBuilderConfig().getUnder(),
-                    world.getBiome(middlePos).getGenerationSettings().getSurfaceBuilderConfig().getTop(),
-                    world.getBiome(middlePos).getGenerationSettings().getSurfaceBuilderConfig().getUnder(),
-                    world.getBiome(rightPos).getGenerationSettings().getSurfaceBuilderConfig().getTop(),
-                    world.getBiome(rightPos).getGenerationSettings().getSurfaceBuilderConfig().getUnder(),
-                    world.getBiome(leftPos.offset(facing.rotateYCCW())).getGenerationSettings().getSurfaceBuilderConfig().getTop(),
-                    world.getBiome(leftPos.offset(facing.rotateYCCW())).getGenerationSettings().getSurfaceBuilderConfig().getUnder(),
-                    world.getBiome(rightPos.offset(facing.rotateY())).getGenerationSettings().getSurfaceBuilderConfig().getTop(),
-                    world.getBiome(rightPos.offset(facing.rotateY())).getGenerationSettings().getSurfaceBuilderConfig().getUnder()
-                );
-
-                // Replaceable materials
-                Set<Material> replaceableMaterials = Sets.newHashSet(
-                    Material.ROCK, Material.ORGANIC, Material.EARTH, Material.SAND, Material.SNOW, Material.ICE
-                );
-
-                // Place cobble above air
-                temp.setPos(leftPos.getX(), leftPos.getY() + 4, leftPos.getZ());
-                tempBlock = world.getBlockState(temp);
-                if (tempBlock.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (replaceableMaterials.contains(tempBlock.getMaterial()) || replaceableBlocks.contains(tempBlock))))
-                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                temp.setPos(middlePos.getX(), middlePos.getY() + 4, middlePos.getZ());
-                tempBlock = world.getBlockState(temp);
-                if (tempBlock.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (replaceableMaterials.contains(tempBlock.getMaterial()) || replaceableBlocks.contains(tempBlock))))
-                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                temp.setPos(rightPos.getX(), rightPos.getY() + 4, rightPos.getZ());
-                tempBlock = world.getBlockState(temp);
-                if (tempBlock.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (replaceableMaterials.contains(tempBlock.getMaterial()) || replaceableBlocks.contains(tempBlock))))
-                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                // Place cobble in left wall
-                temp.setPos(leftPos.offset(facing.rotateYCCW()));
-                for (int y = 0; y <= 4; y++) {
-                    tempBlock = world.getBlockState(temp);
-                    if (tempBlock.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (replaceableMaterials.contains(tempBlock.getMaterial()) || replaceableBlocks.contains(tempBlock))))
-                        this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                    temp.move(Direction.UP);
-                }
-
-                // Place cobble in right wall
-                temp.setPos(rightPos.offset(facing.rotateY()));
-                for (int y = 0; y <= 4; y++) {
-                    tempBlock = world.getBlockState(temp);
-                    if (tempBlock.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (replaceableMaterials.contains(tempBlock.getMaterial()) || replaceableBlocks.contains(tempBlock))))
-                        this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, structurePlacementData.getMirror(), structurePlacementData.getRotation());
-
-                    temp.move(Direction.UP);
-                }
-
-                // Update mutables
-                leftPos.move(facing).move(Direction.UP);
-                middlePos.move(facing).move(Direction.UP);
-                rightPos.move(facing).move(Direction.UP);
-            }
+            // Lanes just past the last step
+            BlockPos endPos = blockInfoGlobal.pos.offset(facing, profile.getSteps()).offset(Direction.UP, profile.getSteps());
+            BlockPos.Mutable leftPos = endPos.offset(facing.rotateYCCW()).toMutable();
+            BlockPos.Mutable middlePos = endPos.toMutable();
+            BlockPos.Mutable rightPos = endPos.offset(facing.rotateY()).toMutable();
 
             // Begin placing opening at surface
             leftPos.move(facing.getOpposite()).move(Direction.DOWN);
@@ -228,7 +122,7 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
             this.setBlockState(world, Blocks.SMOOTH_STONE.getDefaultState(), rightPos.offset(Direction.UP, 3), structurePlacementData.getMirror(), structurePlacementData.getRotation());
 
             // Chance of hanging soul lantern
-            BlockState lanternBlock = BDConfig.general.enableNetherBlocks.get()
+            BlockState lanternBlock = config.enableNetherBlocks
                 ? Blocks.SOUL_LANTERN.getDefaultState().with(LanternBlock.HANGING, true)
                 : Blocks.LANTERN.getDefaultState().with(LanternBlock.HANGING, true);
             if (random.nextFloat() < .25f)
@@ -325,6 +219,79 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
         return blockInfoGlobal;
     }
 
+    /**
+     * Builds the steps of a staircase from the given profile, starting at the given middle stair and climbing in the given direction.
+     */
+    private void buildStairs(IWorldReader world, ZombieStaircaseProfile profile, BlockPos start, Direction facing, int maxLength, Random random, Mirror mirror, Rotation rotation) {
+        BlockPos.Mutable leftPos = start.offset(facing.rotateYCCW()).toMutable();
+        BlockPos.Mutable middlePos = start.toMutable();
+        BlockPos.Mutable rightPos = start.offset(facing.rotateY()).toMutable();
+        BlockPos.Mutable temp = new BlockPos.Mutable();
+        BlockPos.Mutable[] lanePositions = {leftPos, middlePos, rightPos};
+
+        for (int i = 0; i < profile.getSteps(); i++) {
+            // Set left, middle and right stairs
+            for (int lane = 0; lane < 3; lane++) {
+                BlockState tempBlock = STAIR_SELECTOR.get(random);
+                if (!profile.getStair(i, lane).isAir()) {
+                    if (profile.getAhead(i, lane).getMaterial().isLiquid()) {
+                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), lanePositions[lane], mirror, rotation);
+                    } else {
+                        this.setBlockState(world, tempBlock, lanePositions[lane], mirror, rotation);
+                    }
+                }
+            }
+
+            // Place air above stairs
+            for (int y = middlePos.getY() + 1; y <= middlePos.getY() + 3; y++) {
+                for (BlockPos.Mutable lanePos : lanePositions) {
+                    temp.setPos(lanePos.getX(), y, lanePos.getZ());
+                    this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), temp, mirror, rotation);
+                }
+            }
+
+            // Chance of replacing a given block with cobblestone. Increases the further down we are.
+            float cobbleChance = (maxLength - i) / (float) maxLength;
+            cobbleChance = Math.max(cobbleChance, 0.25f); // Minimum 50% replacement rate at surface
+            Set<BlockState> replaceableBlocks = profile.getReplaceableBlocks(i);
+
+            // Place cobble above air
+            for (int lane = 0; lane < 3; lane++) {
+                temp.setPos(lanePositions[lane].getX(), lanePositions[lane].getY() + 4, lanePositions[lane].getZ());
+                if (shouldReplaceWithCobble(profile.getAbove(i, lane), replaceableBlocks, cobbleChance, random))
+                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, mirror, rotation);
+            }
+
+            // Place cobble in left wall
+            temp.setPos(leftPos.offset(facing.rotateYCCW()));
+            for (int y = 0; y < ZombieStaircaseProfile.WALL_HEIGHT; y++) {
+                if (shouldReplaceWithCobble(profile.getWall(i, ZombieStaircaseProfile.LEFT, y), replaceableBlocks, cobbleChance, random))
+                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, mirror, rotation);
+
+                temp.move(Direction.UP);
+            }
+
+            // Place cobble in right wall
+            temp.setPos(rightPos.offset(facing.rotateY()));
+            for (int y = 0; y < ZombieStaircaseProfile.WALL_HEIGHT; y++) {
+                if (shouldReplaceWithCobble(profile.getWall(i, ZombieStaircaseProfile.RIGHT, y), replaceableBlocks, cobbleChance, random))
+                    this.setBlockState(world, COBBLE_SELECTOR.get(random), temp, mirror, rotation);
+
+                temp.move(Direction.UP);
+            }
+
+            // Update mutables
+            leftPos.move(facing).move(Direction.UP);
+            middlePos.move(facing).move(Direction.UP);
+            rightPos.move(facing).move(Direction.UP);
+        }
+    }
+
+    @Override
+    protected boolean emitsFlightRecorderEvents() {
+        return true;
+    }
+
     protected IStructureProcessorType<?> getType() {
         return BDModProcessors.ZOMBIE_MAIN_STAIRS_PROCESSOR;
     }
@@ -341,6 +308,13 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
         world.getChunk(pos).setBlockState(pos, blockState, false);
     }
 
+    /**
+     * Liquids are always replaced, and other surface materials and biome surface blocks with the given chance.
+     */
+    private static boolean shouldReplaceWithCobble(BlockState state, Set<BlockState> replaceableBlocks, float cobbleChance, Random random) {
+        return state.getMaterial().isLiquid() || (random.nextFloat() < cobbleChance && (REPLACEABLE_MATERIALS.contains(state.getMaterial()) || replaceableBlocks.contains(state)));
+    }
+
     private void setBlockStateRandom(IWorldReader world, BlockState blockState, BlockPos pos, Mirror mirror, Rotation rotation, Random random, float chance) {
         if (random.nextFloat() < chance) setBlockState(world, blockState, pos, mirror, rotation);
     }
@@ -352,7 +326,7 @@ public class ZombieMainStairsProcessor extends StructureProcessor {
         // Generate vertical pillar down
         BlockPos.Mutable mutable = pos.toMutable();
         BlockState currBlock = world.getBlockState(mutable);
-        while (mutable.getY() > 0 && (currBlock.getMaterial() == Material.AIR || currBlock.getMaterial() == Material.WATER || currBlock.getMaterial() == Material.LAVA)) {
+        while (mutable.getY() > 0 && BlockClassification.is(currBlock, BlockClassification.SUPPORT_REPLACEABLE)) {
             currentChunk.setBlockState(mutable, selector.get(random), false);
             mutable.move(Direction.DOWN);
             currBlock = world.getBlockState(mutable);
@@ -2,6 +2,8 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeo
 
 import com.mojang.serialization.Codec;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.SpawnerBlock;
 import net.minecraft.nbt.CompoundNBT;
@@ -10,7 +12,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -21,13 +22,13 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * Also tweaks the default spawner parameters.
  */
 @MethodsReturnNonnullByDefault
-public class ZombieMobSpawnerProcessor extends StructureProcessor {
+public class ZombieMobSpawnerProcessor extends InstrumentedStructureProcessor {
     public static final ZombieMobSpawnerProcessor INSTANCE = new ZombieMobSpawnerProcessor();
     public static final Codec<ZombieMobSpawnerProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() instanceof SpawnerBlock) {
             // First initialize NBT if it's null for some reason
             if (blockInfoGlobal.nbt == null) {
@@ -64,6 +65,9 @@ public class ZombieMobSpawnerProcessor extends StructureProcessor {
 
             // Time between spawn attempts (default 800)
             blockInfoGlobal.nbt.putShort("MaxSpawnDelay", (short)800);
+
+            // Allow the spawner to go dormant while no players are nearby
+            DormantSpawnerIndex.markDungeonSpawner(blockInfoGlobal.nbt);
         }
         return blockInfoGlobal;
     }
@@ -0,0 +1,147 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeon;
+
+import com.google.common.collect.Sets;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldReader;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.gen.Heightmap;
+
+import java.util.Set;
+
+/**
+ * Snapshot of the terrain along a Zombie Dungeon main staircase, sampled in one pass before any of its blocks are placed.
+ *
+ * The staircase climbs one block up and one block forward per step, in three lanes (left, middle and right),
+ * until it breaks the surface. Each step only reads blocks in its own slice of the staircase and the blocks just ahead of its stairs,
+ * and only writes to its own slice, so no step reads a block written by an earlier step.
+ * Building the staircase from the snapshot therefore places exactly the same blocks as reading the world step by step.
+ */
+public class ZombieStaircaseProfile {
+    public static final int LEFT = 0;
+    public static final int MIDDLE = 1;
+    public static final int RIGHT = 2;
+
+    /**
+     * Height of the walls on either side of the staircase, measured from each stair.
+     */
+    public static final int WALL_HEIGHT = 5;
+
+    private final int steps;
+    private final BlockState[] stairs;
+    private final BlockState[] ahead;
+    private final BlockState[] above;
+    private final BlockState[] leftWall;
+    private final BlockState[] rightWall;
+    private final Set<BlockState>[] replaceableBlocks;
+
+    @SuppressWarnings("unchecked")
+    public ZombieStaircaseProfile(int steps) {
+        this.steps = steps;
+        this.stairs = new BlockState[steps * 3];
+        this.ahead = new BlockState[steps * 3];
+        this.above = new BlockState[steps * 3];
+        this.leftWall = new BlockState[steps * WALL_HEIGHT];
+        this.rightWall = new BlockState[steps * WALL_HEIGHT];
+        this.replaceableBlocks = new Set[steps];
+    }
+
+    /**
+     * Samples the staircase starting at the given middle stair and climbing in the given direction, for at most the given number of steps.
+     * Only reads the blocks and surface heights that building the staircase step by step would read.
+     */
+    public static ZombieStaircaseProfile sample(IWorldReader world, BlockPos start, Direction facing, int maxLength) {
+        // Walk the surface profile first, to find the step at which we break the surface
+        BlockPos.Mutable mutable = start.toMutable();
+        int steps = 0;
+        while (steps < maxLength && world.getHeight(Heightmap.Type.WORLD_SURFACE_WG, mutable).getY() >= mutable.getY()) {
+            mutable.move(facing).move(Direction.UP);
+            steps++;
+        }
+
+        ZombieStaircaseProfile profile = new ZombieStaircaseProfile(steps);
+        Direction leftDirection = facing.rotateYCCW();
+        Direction rightDirection = facing.rotateY();
+        BlockPos.Mutable middlePos = start.toMutable();
+        BlockPos[] lanePositions = new BlockPos[3];
+
+        for (int step = 0; step < steps; step++) {
+            lanePositions[LEFT] = middlePos.offset(leftDirection);
+            lanePositions[MIDDLE] = middlePos.toImmutable();
+            lanePositions[RIGHT] = middlePos.offset(rightDirection);
+
+            for (int lane = 0; lane < 3; lane++) {
+                BlockPos lanePos = lanePositions[lane];
+                profile.stairs[step * 3 + lane] = world.getBlockState(lanePos);
+                profile.ahead[step * 3 + lane] = world.getBlockState(mutable.setPos(lanePos).move(facing));
+                profile.above[step * 3 + lane] = world.getBlockState(mutable.setPos(lanePos).move(Direction.UP, 4));
+            }
+
+            for (int y = 0; y < WALL_HEIGHT; y++) {
+                profile.leftWall[step * WALL_HEIGHT + y] = world.getBlockState(mutable.setPos(lanePositions[LEFT]).move(leftDirection).move(Direction.UP, y));
+                profile.rightWall[step * WALL_HEIGHT + y] = world.getBlockState(mutable.setPos(lanePositions[RIGHT]).move(rightDirection).move(Direction.UP, y));
+            }
+
+            // Surface blocks of the biomes around this step
+            Set<BlockState> replaceableBlocks = Sets.newHashSet();
+            addSurfaceBlocks(replaceableBlocks, world.getBiome(lanePositions[LEFT]));
+            addSurfaceBlocks(replaceableBlocks, world.getBiome(lanePositions[MIDDLE]));
+            addSurfaceBlocks(replaceableBlocks, world.getBiome(lanePositions[RIGHT]));
+            addSurfaceBlocks(replaceableBlocks, world.getBiome(lanePositions[LEFT].offset(leftDirection)));
+            addSurfaceBlocks(replaceableBlocks, world.getBiome(lanePositions[RIGHT].offset(rightDirection)));
+            profile.replaceableBlocks[step] = replaceableBlocks;
+
+            middlePos.move(facing).move(Direction.UP);
+        }
+
+        return profile;
+    }
+
+    private static void addSurfaceBlocks(Set<BlockState> blocks, Biome biome) {
+        blocks.add(biome.getGenerationSettings().getSurfaceBuilderConfig().getTop());
+        blocks.add(biome.getGenerationSettings().getSurfaceBuilderConfig().getUnder());
+    }
+
+    /**
+     * Returns the number of steps before the staircase breaks the surface.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the block at the given lane's stair.
+     */
+    public BlockState getStair(int step, int lane) {
+        return stairs[step * 3 + lane];
+    }
+
+    /**
+     * Returns the block one block ahead of the given lane's stair.
+     */
+    public BlockState getAhead(int step, int lane) {
+        return ahead[step * 3 + lane];
+    }
+
+    /**
+     * Returns the block four blocks above the given lane's stair, just above the cleared headroom.
+     */
+    public BlockState getAbove(int step, int lane) {
+        return above[step * 3 + lane];
+    }
+
+    /**
+     * Returns the wall block next to the given outer lane's stair, at the given height above it.
+     */
+    public BlockState getWall(int step, int lane, int y) {
+        return (lane == LEFT ? leftWall : rightWall)[step * WALL_HEIGHT + y];
+    }
+
+    /**
+     * Returns the top and under surface blocks of the biomes around the given step.
+     */
+    public Set<BlockState> getReplaceableBlocks(int step) {
+        return replaceableBlocks[step];
+    }
+}
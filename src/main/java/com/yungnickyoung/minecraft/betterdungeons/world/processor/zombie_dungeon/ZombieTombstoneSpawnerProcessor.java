@@ -3,6 +3,8 @@ package com.yungnickyoung.minecraft.betterdungeons.world.processor.zombie_dungeo
 
 import com.mojang.serialization.Codec;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModProcessors;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.processor.InstrumentedStructureProcessor;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.block.Blocks;
 import net.minecraft.item.ItemStack;
@@ -15,7 +17,6 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IWorldReader;
 import net.minecraft.world.gen.feature.template.IStructureProcessorType;
 import net.minecraft.world.gen.feature.template.PlacementSettings;
-import net.minecraft.world.gen.feature.template.StructureProcessor;
 import net.minecraft.world.gen.feature.template.Template;
 
 import javax.annotation.Nullable;
@@ -25,13 +26,13 @@ import javax.annotation.ParametersAreNonnullByDefault;
  * Sets mob spawners to spawn skeletons w/ swords.
  */
 @MethodsReturnNonnullByDefault
-public class ZombieTombstoneSpawnerProcessor extends StructureProcessor {
+public class ZombieTombstoneSpawnerProcessor extends InstrumentedStructureProcessor {
     public static final ZombieTombstoneSpawnerProcessor INSTANCE = new ZombieTombstoneSpawnerProcessor();
     public static final Codec<ZombieTombstoneSpawnerProcessor> CODEC = Codec.unit(() -> INSTANCE);
 
     @ParametersAreNonnullByDefault
     @Override
-    public Template.BlockInfo process(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
+    protected Template.BlockInfo processBlock(IWorldReader worldReader, BlockPos jigsawPiecePos, BlockPos jigsawPieceBottomCenterPos, Template.BlockInfo blockInfoLocal, Template.BlockInfo blockInfoGlobal, PlacementSettings structurePlacementData, @Nullable Template template) {
         if (blockInfoGlobal.state.getBlock() == Blocks.BLACK_STAINED_GLASS) {
             // First initialize NBT if it's null for some reason
             if (blockInfoGlobal.nbt == null) {
@@ -84,6 +85,9 @@ public class ZombieTombstoneSpawnerProcessor extends StructureProcessor {
 
             // Time between spawn attempts (default 800)
             blockInfoGlobal.nbt.putShort("MaxSpawnDelay", (short)800);
+
+            // Allow the spawner to go dormant while no players are nearby
+            DormantSpawnerIndex.markDungeonSpawner(blockInfoGlobal.nbt);
         }
         return blockInfoGlobal;
     }
@@ -1,34 +1,47 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.util.ResourceLocationFilter;
+import com.yungnickyoung.minecraft.betterdungeons.world.DungeonLocationIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.LatencyHistogram;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr.FlightRecorderEvents;
 import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece.SpiderDungeonBigTunnelPiece;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece.SpiderDungeonPiece;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.entity.EntityType;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MutableBoundingBox;
 import net.minecraft.util.registry.DynamicRegistries;
+import net.minecraft.world.ISeedReader;
+import net.minecraft.world.IWorldReader;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.MobSpawnInfo;
 import net.minecraft.world.gen.ChunkGenerator;
 import net.minecraft.world.gen.GenerationStage;
 import net.minecraft.world.gen.feature.NoFeatureConfig;
 import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureManager;
 import net.minecraft.world.gen.feature.structure.StructurePiece;
 import net.minecraft.world.gen.feature.structure.StructureStart;
 import net.minecraft.world.gen.feature.template.TemplateManager;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.List;
+import java.util.Random;
 
 @MethodsReturnNonnullByDefault
 public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
     /**
-     * Lists of whitelisted dimensions and blacklisted biomes.
+     * Filters for whitelisted dimensions and blacklisted biomes.
      * Will be reinitialized later w/ values from config.
      */
-    public static List<String> whitelistedDimensions = Lists.newArrayList("minecraft:overworld");
-    public static List<String> blacklistedBiomes = Lists.newArrayList(
+    public static ResourceLocationFilter whitelistedDimensions = ResourceLocationFilter.of("minecraft:overworld");
+    public static ResourceLocationFilter blacklistedBiomes = ResourceLocationFilter.of(
         "minecraft:ocean", "minecraft:frozen_ocean", "minecraft:deep_ocean",
         "minecraft:warm_ocean", "minecraft:lukewarm_ocean", "minecraft:cold_ocean",
         "minecraft:deep_lukewarm_ocean", "minecraft:deep_cold_ocean", "minecraft:deep_frozen_ocean",
@@ -50,6 +63,13 @@ public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
         return GenerationStage.Decoration.UNDERGROUND_STRUCTURES;
     }
 
+    @Nullable
+    @Override
+    public BlockPos func_236388_a_(IWorldReader worldIn, StructureManager structureManager, BlockPos pos, int radius, boolean skipExistingChunks, long seed, StructureSeparationSettings separationSettings) {
+        return DungeonLocationIndex.locate(this, worldIn, structureManager, pos, radius, skipExistingChunks, seed, separationSettings,
+            () -> super.func_236388_a_(worldIn, structureManager, pos, radius, skipExistingChunks, seed, separationSettings));
+    }
+
     // Spider dungeons can only spawn spiders & cave spiders
     private static final List<MobSpawnInfo.Spawners> STRUCTURE_MONSTERS = ImmutableList.of(
         new MobSpawnInfo.Spawners(EntityType.SPIDER, 100, 4, 15),
@@ -67,6 +87,10 @@ public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
     }
 
     public static class Start extends StructureStart<NoFeatureConfig> {
+        private static final String DUNGEON_TYPE = "spider_dungeon";
+        private static final LatencyHistogram ASSEMBLY_HISTOGRAM = GenerationMetrics.histogram(GenerationMetrics.STARTS, DUNGEON_TYPE);
+        private static final LatencyHistogram PLACEMENT_HISTOGRAM = GenerationMetrics.histogram(GenerationMetrics.PLACEMENT, DUNGEON_TYPE);
+
         public Start(Structure<NoFeatureConfig> structureIn, int chunkX, int chunkZ, MutableBoundingBox mutableBoundingBox, int referenceIn, long seedIn) {
             super(structureIn, chunkX, chunkZ, mutableBoundingBox, referenceIn, seedIn);
         }
@@ -74,6 +98,9 @@ public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
         @Override
         @ParametersAreNonnullByDefault
         public void func_230364_a_(DynamicRegistries registryManager, ChunkGenerator chunkGenerator, TemplateManager templateManagerIn, int chunkX, int chunkZ, Biome biomeIn, NoFeatureConfig config) {
+            long startTime = GenerationMetrics.start();
+            Object event = FlightRecorderEvents.beginStructureStart();
+
             int startX = chunkX << 4;
             int startZ = chunkZ << 4;
 
@@ -84,6 +111,8 @@ public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
 
             // Set the bounds of the structure once it's assembled
             this.recalculateStructureSize();
+            GenerationMetrics.stop(ASSEMBLY_HISTOGRAM, startTime);
+            FlightRecorderEvents.commitStructureStart(event, DUNGEON_TYPE, chunkX, chunkZ, this.components.size(), this.getBoundingBox());
 
             // Debug log the coordinates of the center starting piece.
             BetterDungeons.LOGGER.debug("Spider Dungeon at {} {} {}",
@@ -92,5 +121,25 @@ public class SpiderDungeonStructure extends Structure<NoFeatureConfig> {
                 this.components.get(0).getBoundingBox().minZ
             );
         }
+
+        /**
+         * Returns whether any piece places blocks in the given chunk.
+         * Only these chunks reference the start, rather than every chunk its bounding box intersects.
+         */
+        public boolean isInChunkFootprint(int chunkX, int chunkZ) {
+            for (StructurePiece piece : this.components) {
+                if (piece instanceof SpiderDungeonPiece
+                    ? ((SpiderDungeonPiece) piece).isInChunkFootprint(chunkX, chunkZ)
+                    : piece.getBoundingBox().intersectsWith(chunkX << 4, chunkZ << 4, (chunkX << 4) + 15, (chunkZ << 4) + 15)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void func_230366_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos) {
+            GenerationMetrics.time(PLACEMENT_HISTOGRAM, () -> super.func_230366_a_(world, structureManager, chunkGenerator, random, box, chunkPos));
+        }
     }
 }
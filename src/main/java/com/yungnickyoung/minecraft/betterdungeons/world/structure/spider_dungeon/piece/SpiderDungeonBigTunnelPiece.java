@@ -1,8 +1,14 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece;
 
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
-import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructurePieces;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.ChunkBulkWriter;
+import com.yungnickyoung.minecraft.betterdungeons.world.GenerationThrottle;
+import com.yungnickyoung.minecraft.betterdungeons.world.SparseCarvingMask;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.fluid.Fluids;
@@ -21,8 +27,8 @@ import net.minecraft.world.gen.feature.structure.StructureManager;
 import net.minecraft.world.gen.feature.structure.StructurePiece;
 import net.minecraft.world.gen.feature.template.TemplateManager;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 
@@ -32,14 +38,24 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
     private float pitch = 0;
     private final float[] yaws = new float[LENGTH];
 
+    /**
+     * Spheres carved by this tunnel, computed on first placement and shared by every chunk it is placed in.
+     */
+    @Nullable
+    private volatile TunnelGeometry geometry;
+
     private static final int LENGTH = 30;
     private static final float X_MINRADIUS = 2, X_MAXRADIUS = 2.5f,
                                Y_MINRADIUS = 2, Y_MAXRADIUS = 2.5f,
                                Z_MINRADIUS = 2, Z_MAXRADIUS = 2.5f;
 
     public SpiderDungeonBigTunnelPiece(int startX, int startZ, Random random) { // Constructor used by starting piece
+        this(startX, startZ, random, BDConfigSnapshot.get());
+    }
+
+    private SpiderDungeonBigTunnelPiece(int startX, int startZ, Random random, BDConfigSnapshot config) {
         this(new BlockPos(startX,
-                random.nextInt(BDConfig.spiderDungeons.spiderDungeonStartMaxY.get() - BDConfig.spiderDungeons.spiderDungeonStartMinY.get()) + BDConfig.spiderDungeons.spiderDungeonStartMinY.get(),
+                random.nextInt(config.spiderDungeonStartMaxY - config.spiderDungeonStartMinY) + config.spiderDungeonStartMinY,
                 startZ),
             0);
     }
@@ -73,6 +89,7 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
     @Override
     @ParametersAreNonnullByDefault
     protected void readAdditional(CompoundNBT tagCompound) {
+        super.readAdditional(tagCompound);
         tagCompound.putIntArray("startPos", new int[]{startPos.getX(), startPos.getY(), startPos.getZ()});
         tagCompound.putIntArray("endPos", new int[]{endPos.getX(), endPos.getY(), endPos.getZ()});
         tagCompound.putFloat("pitch", pitch);
@@ -155,6 +172,11 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
         this.boundingBox.minZ = minZ;
         this.boundingBox.maxZ = maxZ;
 
+        // Track the chunks the spheres carve. The yaws are final now, so the geometry is also reused for placement.
+        LongSet footprint = new LongOpenHashSet();
+        getGeometry().addChunks(footprint);
+        setChunkFootprint(footprint);
+
         this.endPos = new BlockPos(caveStartX, caveStartY, caveStartZ);
 
         // Generate additional big tunnel if there's only one so far
@@ -192,7 +214,7 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
             StructurePiece smallTunnelPiece4 = new SpiderDungeonSmallTunnelPiece(endPos, smallTunnelAngle, this.componentType + 1);
             pieceList.add(smallTunnelPiece4);
             smallTunnelPiece4.buildComponent(smallTunnelPiece4, pieceList, rand);
-        } else if (this.componentType == 0) {
+        } else if (this.componentType == 0 && !GenerationThrottle.shouldSimplify(GenerationThrottle.SPIDER_EXTRA_BIG_TUNNEL, endPos)) {
             StructurePiece extraBigTunnelPiece = new SpiderDungeonBigTunnelPiece(endPos, this.componentType + 1, rand.nextFloat() * (float) Math.PI / 6f - ((float) Math.PI / 6f), smallTunnelAngle);
             pieceList.add(extraBigTunnelPiece);
             extraBigTunnelPiece.buildComponent(extraBigTunnelPiece, pieceList, rand);
@@ -204,18 +226,34 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
         nestPiece.buildComponent(nestPiece, pieceList, rand);
     }
 
+    /**
+     * Returns the spheres this tunnel carves, computing them the first time they are needed.
+     * Must only be called once the yaws are final, i.e. after buildComponent or loading from NBT.
+     */
+    private TunnelGeometry getGeometry() {
+        TunnelGeometry geometry = this.geometry;
+        if (geometry == null) {
+            geometry = TunnelGeometry.compute(startPos, pitch, yaws, X_MINRADIUS, X_MAXRADIUS, Y_MINRADIUS, Y_MAXRADIUS, Z_MINRADIUS, Z_MAXRADIUS);
+            this.geometry = geometry;
+        }
+        return geometry;
+    }
+
     /**
      * Generate.
      */
     @Override
     @ParametersAreNonnullByDefault
-    public boolean func_230383_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
+    protected boolean placePiece(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
         BlockPos.Mutable mutable = new BlockPos.Mutable();
         SharedSeedRandom decoRand = new SharedSeedRandom(); // Rand for decoration. It's not as important for this to be deterministic.
         decoRand.setDecorationSeed(world.getSeed(), startPos.getX(), startPos.getZ());
 
         // Temporary chunk-local carving mask to prevent overwriting carved blocks and add decorations
-        BitSet carvingMask = new BitSet(65536);
+        SparseCarvingMask carvingMask = new SparseCarvingMask();
+
+        // Carving writes go straight to this chunk's sections
+        ChunkBulkWriter writer = new ChunkBulkWriter(world, chunkPos, box);
 
         // Surface
         int[] surface = new int[256];
@@ -226,44 +264,32 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
             }
         }
 
-        float caveStartX = startPos.getX(),
-              caveStartY = startPos.getY(),
-              caveStartZ = startPos.getZ();
-
         // ---- Begin generating big tunnel ---- //
+        TunnelGeometry geometry = getGeometry();
 
         for (int i = 0; i < LENGTH; i++) {
-            float pitchY = MathHelper.sin(this.pitch);
-            float pitchXZ = MathHelper.cos(this.pitch); // allows for steep drops
-            float yaw = this.yaws[i];
-
-            // Center of this sphere
-            caveStartX += MathHelper.cos(yaw) * pitchXZ;
-            caveStartY += MathHelper.sin(pitchY);
-            caveStartZ += MathHelper.sin(yaw) * pitchXZ;
-
-            // Vary the size of the tunnel such that it is widest in the middle and smallest at the end
-            float xRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), X_MINRADIUS, X_MAXRADIUS);
-            float yRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), Y_MINRADIUS, Y_MAXRADIUS);
-            float zRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), Z_MINRADIUS, Z_MAXRADIUS);
-
-            // Min and max values we need to consider for carving
-            int minX = MathHelper.floor(caveStartX - xRadius) - chunkPos.x * 16 - 1;
-            int maxX = MathHelper.floor(caveStartX + xRadius) - chunkPos.x * 16 + 1;
-            int minY = MathHelper.clamp(MathHelper.floor(caveStartY - yRadius) - 1, 0, 255);
-            int maxY = MathHelper.clamp(MathHelper.floor(caveStartY + yRadius) + 1, 0, 255);
-            int minZ = MathHelper.floor(caveStartZ - zRadius) - chunkPos.z * 16 - 1;
-            int maxZ = MathHelper.floor(caveStartZ + zRadius) - chunkPos.z * 16 + 1;
-
-            // Clamp min/max values to ensure the coordinates are chunk-local
-            minX = MathHelper.clamp(minX, 0, 15);
-            maxX = MathHelper.clamp(maxX, 0, 15);
-            minZ = MathHelper.clamp(minZ, 0, 15);
-            maxZ = MathHelper.clamp(maxZ, 0, 15);
+            // Center and size of this sphere
+            float caveStartX = geometry.getCenterX(i),
+                  caveStartY = geometry.getCenterY(i),
+                  caveStartZ = geometry.getCenterZ(i);
+            float xRadius = geometry.getXRadius(i);
+            float yRadius = geometry.getYRadius(i);
+            float zRadius = geometry.getZRadius(i);
 
             // DEBUG
             if (BetterDungeons.DEBUG_MODE)
-                this.setBlockState(world, Blocks.DIAMOND_BLOCK.getDefaultState(), (int) caveStartX, (int) caveStartY, (int) caveStartZ, box);
+                writer.setBlockState((int) caveStartX, (int) caveStartY, (int) caveStartZ, Blocks.DIAMOND_BLOCK.getDefaultState());
+
+            // Spheres that don't reach this chunk can't carve anything in it
+            if (!geometry.intersectsChunk(i, chunkPos)) continue;
+
+            // Min and max values we need to consider for carving, clamped to ensure the coordinates are chunk-local
+            int minX = MathHelper.clamp(geometry.getMinX(i) - chunkPos.x * 16, 0, 15);
+            int maxX = MathHelper.clamp(geometry.getMaxX(i) - chunkPos.x * 16, 0, 15);
+            int minY = geometry.getMinY(i);
+            int maxY = geometry.getMaxY(i);
+            int minZ = MathHelper.clamp(geometry.getMinZ(i) - chunkPos.z * 16, 0, 15);
+            int maxZ = MathHelper.clamp(geometry.getMaxZ(i) - chunkPos.z * 16, 0, 15);
 
             // -- Carve sphere -- //
             for (float x = minX; x <= maxX; x++) {
@@ -304,8 +330,8 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
                         // Carve out blocks within the ellipsoid. Blocks immediately outside the ellipsoid will be turned into a cobblestone shell.
                         float radialDist = radialXDist * radialXDist + radialYDist * radialYDist + radialZDist * radialZDist;
                         if (!carvingMask.get(mask) && radialDist < 1.0) {
-                            if (!BLOCK_BLACKLIST.contains(this.getBlockStateFromPos(world, globalX, globalY, globalZ, box).getBlock())) {
-                                this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), globalX, globalY, globalZ, box);
+                            if (!BlockClassification.is(writer.getBlockState(globalX, globalY, globalZ), BlockClassification.CARVE_PROTECTED)) {
+                                writer.setBlockState(globalX, globalY, globalZ, Blocks.CAVE_AIR.getDefaultState());
                                 carvingMask.set(mask);
                             }
                         } else {
@@ -316,10 +342,10 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
                             float radialZDistShell = (globalZ - caveStartZ + .5f) / (zRadius + 1.2f);
                             float radialDistShell = radialXDistShell * radialXDistShell + radialYDistShell * radialYDistShell + radialZDistShell * radialZDistShell;
                             if (!carvingMask.get(mask) && radialDistShell < 1.0) {
-                                BlockState state = this.getBlockStateFromPos(world, globalX, globalY, globalZ, box);
-                                if (!BLOCK_BLACKLIST.contains(state.getBlock())) {
+                                BlockState state = writer.getBlockState(globalX, globalY, globalZ);
+                                if (!BlockClassification.is(state, BlockClassification.CARVE_PROTECTED)) {
                                     if (state.isAir() || state.getFluidState().getFluid() != Fluids.EMPTY || decoRand.nextFloat() < .2f) {
-                                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), globalX, globalY, globalZ, box);
+                                        writer.setBlockState(globalX, globalY, globalZ, Blocks.COBBLESTONE.getDefaultState());
                                     }
                                 }
                             }
@@ -330,6 +356,9 @@ public class SpiderDungeonBigTunnelPiece extends SpiderDungeonPiece {
             }
         }
 
+        // Bring heightmaps up to date before decorating
+        writer.flush();
+
         decorateCave(world, decoRand, chunkPos, box, carvingMask);
 
         return true;
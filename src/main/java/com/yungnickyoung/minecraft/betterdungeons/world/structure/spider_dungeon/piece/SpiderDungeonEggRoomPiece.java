@@ -2,6 +2,10 @@ package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeo
 
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructurePieces;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.ChunkBulkWriter;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.SparseCarvingMask;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
@@ -25,7 +29,6 @@ import net.minecraft.world.gen.feature.structure.StructurePiece;
 import net.minecraft.world.gen.feature.template.TemplateManager;
 
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 
@@ -60,6 +63,7 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
     @Override
     @ParametersAreNonnullByDefault
     protected void readAdditional(CompoundNBT tagCompound) {
+        super.readAdditional(tagCompound);
         tagCompound.putIntArray("startPos", new int[]{startPos.getX(), startPos.getY(), startPos.getZ()});
         tagCompound.putFloat("xRadius", xRadius);
         tagCompound.putFloat("yRadius", yRadius);
@@ -87,13 +91,16 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
      */
     @Override
     @ParametersAreNonnullByDefault
-    public boolean func_230383_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
+    protected boolean placePiece(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
         BlockPos.Mutable mutable = new BlockPos.Mutable();
         SharedSeedRandom decoRand = new SharedSeedRandom(); // Rand for decoration. It's not as important for this to be deterministic.
         decoRand.setDecorationSeed(world.getSeed(), startPos.getX(), startPos.getZ());
 
         // Temporary chunk-local carving mask to prevent overwriting carved blocks and add decorations
-        BitSet carvingMask = new BitSet(65536);
+        SparseCarvingMask carvingMask = new SparseCarvingMask();
+
+        // Carving writes go straight to this chunk's sections
+        ChunkBulkWriter writer = new ChunkBulkWriter(world, chunkPos, box);
 
         // Surface
         int[] surface = new int[256];
@@ -163,8 +170,8 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
                     float radialDist = radialXDist * radialXDist + radialYDist * radialYDist + radialZDist * radialZDist;
                     if (radialDist < 1.0) {
                         if (!carvingMask.get(mask)) {
-                            if (!BLOCK_BLACKLIST.contains(this.getBlockStateFromPos(world, globalX, globalY, globalZ, box).getBlock())) {
-                                this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), globalX, globalY, globalZ, box);
+                            if (!BlockClassification.is(writer.getBlockState(globalX, globalY, globalZ), BlockClassification.CARVE_PROTECTED)) {
+                                writer.setBlockState(globalX, globalY, globalZ, Blocks.CAVE_AIR.getDefaultState());
                                 carvingMask.set(mask);
                             }
                         }
@@ -176,13 +183,13 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
                         float radialZDistShell = (globalZ - caveStartZ + .5f) / (zRadius + 1.2f);
                         float radialDistShell = radialXDistShell * radialXDistShell + radialYDistShell * radialYDistShell + radialZDistShell * radialZDistShell;
                         if (radialDistShell < 1.0 && !carvingMask.get(mask)) {
-                            BlockState state = this.getBlockStateFromPos(world, globalX, globalY, globalZ, box);
+                            BlockState state = writer.getBlockState(globalX, globalY, globalZ);
                             // Make sure block is not blacklisted AND not air.
                             // The check for air ensures the shells will not block off the connecting tunnels,
                             // but as a result they could get destroyed by cave gen
-                            if (!BLOCK_BLACKLIST.contains(state.getBlock()) && state.getMaterial() != Material.AIR) {
+                            if (!BlockClassification.is(state, BlockClassification.CARVE_PROTECTED) && state.getMaterial() != Material.AIR) {
                                 if (state.isAir() || state.getFluidState().getFluid() != Fluids.EMPTY || decoRand.nextFloat() < .8f) {
-                                    this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), globalX, globalY, globalZ, box);
+                                    writer.setBlockState(globalX, globalY, globalZ, Blocks.COBBLESTONE.getDefaultState());
                                 }
                             }
                         }
@@ -191,6 +198,9 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
             }
         }
 
+        // Bring heightmaps up to date before decorating
+        writer.flush();
+
         BlockPos chestPos = new BlockPos((int) caveStartX, (int) caveStartY - (int) yRadius + 1, (int) caveStartZ);
 
         // Place wool egg
@@ -216,6 +226,7 @@ public class SpiderDungeonEggRoomPiece extends SpiderDungeonPiece {
                 TileEntity spawnerTileEntity = world.getTileEntity(chestPos);
                 if (spawnerTileEntity instanceof MobSpawnerTileEntity) {
                     ((MobSpawnerTileEntity) spawnerTileEntity).getSpawnerBaseLogic().setEntityType(EntityType.SPIDER);
+                    DormantSpawnerIndex.markDungeonSpawner(spawnerTileEntity);
                 } else {
                     BetterDungeons.LOGGER.warn("Expected spider spawner entity at {}, but found none!", chestPos);
                 }
@@ -3,7 +3,13 @@ package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeo
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
 import com.yungnickyoung.minecraft.betterdungeons.compat.QuarkCompat;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructurePieces;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.ChunkBulkWriter;
+import com.yungnickyoung.minecraft.betterdungeons.world.DormantSpawnerIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.SparseCarvingMask;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.material.Material;
@@ -26,7 +32,6 @@ import net.minecraft.world.gen.feature.structure.StructurePiece;
 import net.minecraft.world.gen.feature.template.TemplateManager;
 
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 
@@ -61,6 +66,7 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
     @Override
     @ParametersAreNonnullByDefault
     protected void readAdditional(CompoundNBT tagCompound) {
+        super.readAdditional(tagCompound);
         tagCompound.putIntArray("startPos", new int[]{startPos.getX(), startPos.getY(), startPos.getZ()});
         tagCompound.putFloat("xRadius", xRadius);
         tagCompound.putFloat("yRadius", yRadius);
@@ -81,6 +87,10 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
         this.boundingBox.maxY = this.startPos.getY() + (int) this.yRadius + 4;
         this.boundingBox.minZ = this.startPos.getZ() - (int) this.zRadius - 4;
         this.boundingBox.maxZ = this.startPos.getZ() + (int) this.zRadius + 4;
+
+        LongSet footprint = new LongOpenHashSet();
+        addEllipsoidChunks(footprint, this.startPos.getX(), this.startPos.getZ(), this.xRadius, this.zRadius);
+        setChunkFootprint(footprint);
     }
 
     /**
@@ -88,13 +98,16 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
      */
     @Override
     @ParametersAreNonnullByDefault
-    public boolean func_230383_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
+    protected boolean placePiece(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
         BlockPos.Mutable mutable = new BlockPos.Mutable();
         SharedSeedRandom decoRand = new SharedSeedRandom(); // Rand for decoration. It's not as important for this to be deterministic.
         decoRand.setDecorationSeed(world.getSeed(), startPos.getX(), startPos.getZ());
 
         // Temporary chunk-local carving mask to prevent overwriting carved blocks and add decorations
-        BitSet carvingMask = new BitSet(65536);
+        SparseCarvingMask carvingMask = new SparseCarvingMask();
+
+        // Carving writes go straight to this chunk's sections
+        ChunkBulkWriter writer = new ChunkBulkWriter(world, chunkPos, box);
 
         // Create shell selector ahead of time to avoid redundant initialization
         BlockSetSelector shellSelector = new BlockSetSelector(Blocks.COBBLESTONE.getDefaultState());
@@ -170,10 +183,10 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
                     float radialDist = radialXDist * radialXDist + radialYDist * radialYDist + radialZDist * radialZDist;
                     if (radialDist < 1.0) {
                         if (globalX == caveStartX && globalZ == caveStartZ && globalY > caveStartY) {
-                            this.setBlockState(world, Blocks.WHITE_WOOL.getDefaultState(), globalX, globalY, globalZ, box);
+                            writer.setBlockState(globalX, globalY, globalZ, Blocks.WHITE_WOOL.getDefaultState());
                         } else if (!carvingMask.get(mask)) {
-                            if (!BLOCK_BLACKLIST.contains(this.getBlockStateFromPos(world, globalX, globalY, globalZ, box).getBlock())) {
-                                this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), globalX, globalY, globalZ, box);
+                            if (!BlockClassification.is(writer.getBlockState(globalX, globalY, globalZ), BlockClassification.CARVE_PROTECTED)) {
+                                writer.setBlockState(globalX, globalY, globalZ, Blocks.CAVE_AIR.getDefaultState());
                                 carvingMask.set(mask);
                             }
                         }
@@ -186,9 +199,9 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
                         float radialDistShell = radialXDistShell * radialXDistShell + radialYDistShell * radialYDistShell + radialZDistShell * radialZDistShell;
                         if (radialDistShell < 1.0) {
                             if (globalX == caveStartX && globalZ == caveStartZ && globalY > caveStartY) { // Guarantee wool up to ceiling
-                                this.setBlockState(world, Blocks.WHITE_WOOL.getDefaultState(), globalX, globalY, globalZ, box);
+                                writer.setBlockState(globalX, globalY, globalZ, Blocks.WHITE_WOOL.getDefaultState());
                             } else if (!carvingMask.get(mask)) { // Only place cobble shell on outer rim
-                                BlockState state = this.getBlockStateFromPos(world, globalX, globalY, globalZ, box);
+                                BlockState state = writer.getBlockState(globalX, globalY, globalZ);
 //                                if (!BLOCK_BLACKLIST.contains(state.getBlock())) { // Ignore blacklisted blocks
 //                                    if (y <= minY + 3 || y >= maxY) { // Force generation of floor and ceiling.
 //                                        // We use a selector with a chance of cobweb in order to expose the openings to big tunnels
@@ -197,9 +210,9 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
 //                                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), globalX, globalY, globalZ, box);
 //                                    }
 //                                }
-                                if (!BLOCK_BLACKLIST.contains(state.getBlock()) && state.getMaterial() != Material.AIR) { // Ignore blacklisted blocks and air
+                                if (!BlockClassification.is(state, BlockClassification.CARVE_PROTECTED) && state.getMaterial() != Material.AIR) { // Ignore blacklisted blocks and air
                                     if (state.getFluidState().getFluid() != Fluids.EMPTY || decoRand.nextFloat() < .8f) {
-                                        this.setBlockState(world, shellSelector.get(decoRand), globalX, globalY, globalZ, box);
+                                        writer.setBlockState(globalX, globalY, globalZ, shellSelector.get(decoRand));
                                     }
                                 }
                             }
@@ -209,6 +222,9 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
             }
         }
 
+        // Bring heightmaps up to date before decorating
+        writer.flush();
+
         // Place wool cocoon
         this.placeSphereRandomized(world, box, (int) caveStartX, (int) caveStartY + 1, (int) caveStartZ, 2, decoRand, .5f, WOOL_SELECTOR, true);
 
@@ -228,6 +244,7 @@ public class SpiderDungeonNestPiece extends SpiderDungeonPiece {
             TileEntity spawnerTileEntity = world.getTileEntity(startPos.offset(Direction.UP));
             if (spawnerTileEntity instanceof MobSpawnerTileEntity) {
                 ((MobSpawnerTileEntity) spawnerTileEntity).getSpawnerBaseLogic().setEntityType(EntityType.CAVE_SPIDER);
+                DormantSpawnerIndex.markDungeonSpawner(spawnerTileEntity);
             } else {
                 BetterDungeons.LOGGER.warn("Expected cave spider spawner entity at {}, but found none!", startPos.offset(Direction.UP));
             }
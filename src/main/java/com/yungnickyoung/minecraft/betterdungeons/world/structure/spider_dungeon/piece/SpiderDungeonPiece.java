@@ -1,24 +1,41 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece;
 
-import com.google.common.collect.Sets;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.SparseCarvingMask;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.LatencyHistogram;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr.FlightRecorderEvents;
 import com.yungnickyoung.minecraft.yungsapi.world.BlockSetSelector;
-import net.minecraft.block.Block;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.MutableBoundingBox;
 import net.minecraft.world.ISeedReader;
+import net.minecraft.world.gen.ChunkGenerator;
 import net.minecraft.world.gen.feature.structure.IStructurePieceType;
+import net.minecraft.world.gen.feature.structure.StructureManager;
 import net.minecraft.world.gen.feature.structure.StructurePiece;
 
-import java.util.BitSet;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.Random;
-import java.util.Set;
 
 public abstract class SpiderDungeonPiece extends StructurePiece {
-    protected static final Set<Block> BLOCK_BLACKLIST = Sets.newHashSet(Blocks.DIAMOND_BLOCK, Blocks.WHITE_WOOL, Blocks.SPAWNER, Blocks.CHEST, Blocks.ACACIA_LEAVES, Blocks.BIRCH_LEAVES, Blocks.OAK_LEAVES, Blocks.DARK_OAK_LEAVES, Blocks.JUNGLE_LEAVES, Blocks.SPRUCE_LEAVES, Blocks.GRASS, Blocks.TALL_GRASS);
+    private final String name = getClass().getSimpleName();
+    private final LatencyHistogram histogram = GenerationMetrics.histogram(GenerationMetrics.PIECES, name);
+
+    /**
+     * Bitmap of the chunks this piece places blocks in, over the chunks spanned by its bounding box, in x-major order.
+     * Null if the piece doesn't track its footprint, or was saved before footprints existed,
+     * in which case it is placed in every chunk its bounding box intersects.
+     */
+    @Nullable
+    private long[] chunkFootprint;
 
     protected SpiderDungeonPiece(IStructurePieceType structurePieceTypeIn, int componentTypeIn) {
         super(structurePieceTypeIn, componentTypeIn);
@@ -26,10 +43,92 @@ public abstract class SpiderDungeonPiece extends StructurePiece {
 
     public SpiderDungeonPiece(IStructurePieceType structurePierceTypeIn, CompoundNBT nbt) {
         super(structurePierceTypeIn, nbt);
+        if (nbt.contains("chunkFootprint", 12)) {
+            this.chunkFootprint = nbt.getLongArray("chunkFootprint");
+        }
+    }
+
+    @Override
+    @ParametersAreNonnullByDefault
+    protected void readAdditional(CompoundNBT tagCompound) {
+        if (this.chunkFootprint != null) {
+            tagCompound.putLongArray("chunkFootprint", this.chunkFootprint);
+        }
+    }
+
+    /**
+     * Places the piece, timing it when generation metrics or Flight Recorder events are enabled.
+     * Chunks outside the piece's footprint are skipped without doing any work.
+     */
+    @Override
+    @ParametersAreNonnullByDefault
+    public final boolean func_230383_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
+        if (!isInChunkFootprint(chunkPos.x, chunkPos.z)) return true;
+
+        long startTime = GenerationMetrics.start();
+        Object event = FlightRecorderEvents.beginPiecePlacement();
+        boolean placed = placePiece(world, structureManager, chunkGenerator, random, box, chunkPos, blockPos);
+        GenerationMetrics.stop(histogram, startTime);
+        FlightRecorderEvents.commitPiecePlacement(event, "spider_dungeon", name, chunkPos, this.boundingBox, box);
+        return placed;
+    }
+
+    protected abstract boolean placePiece(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos);
+
+    /**
+     * Returns whether placing this piece in the given chunk can change any blocks.
+     */
+    public boolean isInChunkFootprint(int chunkX, int chunkZ) {
+        if (!this.boundingBox.intersectsWith(chunkX << 4, chunkZ << 4, (chunkX << 4) + 15, (chunkZ << 4) + 15)) return false;
+        if (this.chunkFootprint == null) return true;
+
+        int bit = getFootprintBit(chunkX, chunkZ);
+        return (this.chunkFootprint[bit >> 6] & 1L << bit) != 0;
+    }
+
+    /**
+     * Sets the chunks this piece places blocks in. Must be called once the bounding box is final.
+     * Chunks outside the bounding box are ignored, since the piece is never placed in them anyway.
+     */
+    protected void setChunkFootprint(LongSet chunks) {
+        int spanX = (this.boundingBox.maxX >> 4) - (this.boundingBox.minX >> 4) + 1;
+        int spanZ = (this.boundingBox.maxZ >> 4) - (this.boundingBox.minZ >> 4) + 1;
+        long[] footprint = new long[(spanX * spanZ + 63) >> 6];
+        for (LongIterator iterator = chunks.iterator(); iterator.hasNext(); ) {
+            long chunkKey = iterator.nextLong();
+            int chunkX = ChunkPos.getX(chunkKey);
+            int chunkZ = ChunkPos.getZ(chunkKey);
+            if (this.boundingBox.intersectsWith(chunkX << 4, chunkZ << 4, (chunkX << 4) + 15, (chunkZ << 4) + 15)) {
+                int bit = getFootprintBit(chunkX, chunkZ);
+                footprint[bit >> 6] |= 1L << bit;
+            }
+        }
+        this.chunkFootprint = footprint;
+    }
+
+    /**
+     * Adds the chunks placement considers when carving an ellipsoid with the given center and horizontal radii,
+     * i.e. every column from one block past the floored extent of the ellipsoid on either side.
+     */
+    protected static void addEllipsoidChunks(LongSet chunks, float centerX, float centerZ, float xRadius, float zRadius) {
+        int minChunkX = (MathHelper.floor(centerX - xRadius) - 1) >> 4;
+        int maxChunkX = (MathHelper.floor(centerX + xRadius) + 1) >> 4;
+        int minChunkZ = (MathHelper.floor(centerZ - zRadius) - 1) >> 4;
+        int maxChunkZ = (MathHelper.floor(centerZ + zRadius) + 1) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunks.add(ChunkPos.asLong(chunkX, chunkZ));
+            }
+        }
+    }
+
+    private int getFootprintBit(int chunkX, int chunkZ) {
+        int spanZ = (this.boundingBox.maxZ >> 4) - (this.boundingBox.minZ >> 4) + 1;
+        return (chunkX - (this.boundingBox.minX >> 4)) * spanZ + chunkZ - (this.boundingBox.minZ >> 4);
     }
 
-    protected void decorateCave(ISeedReader world, Random decoRand, ChunkPos chunkPos, MutableBoundingBox box, BitSet carvingMask) {
-        carvingMask.stream().forEach(mask -> {
+    protected void decorateCave(ISeedReader world, Random decoRand, ChunkPos chunkPos, MutableBoundingBox box, SparseCarvingMask carvingMask) {
+        carvingMask.forEach(mask -> {
             if (decoRand.nextFloat() < .15f) { // Random chance of cobwebs along cave rim
                 // Grab positional info from mask
                 int x = mask & 0xF;
@@ -46,7 +145,7 @@ public abstract class SpiderDungeonPiece extends StructurePiece {
                     || this.getBlockStateFromPos(world, globalX, y - 1, globalZ, box).isSolid()
                     || this.getBlockStateFromPos(world, globalX, y + 1, globalZ, box).isSolid()
                 ) {
-                    if (!BLOCK_BLACKLIST.contains(this.getBlockStateFromPos(world, globalX, y, globalZ, box).getBlock())) {
+                    if (!BlockClassification.is(this.getBlockStateFromPos(world, globalX, y, globalZ, box), BlockClassification.CARVE_PROTECTED)) {
                         this.setBlockState(world, Blocks.COBWEB.getDefaultState(), globalX, y, globalZ, box);
                     }
                 }
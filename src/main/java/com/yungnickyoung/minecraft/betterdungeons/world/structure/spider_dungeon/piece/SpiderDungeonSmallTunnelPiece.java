@@ -2,6 +2,9 @@ package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeo
 
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
 import com.yungnickyoung.minecraft.betterdungeons.init.BDModStructurePieces;
+import com.yungnickyoung.minecraft.betterdungeons.world.BlockClassification;
+import com.yungnickyoung.minecraft.betterdungeons.world.ChunkBulkWriter;
+import com.yungnickyoung.minecraft.betterdungeons.world.SparseCarvingMask;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.fluid.Fluids;
@@ -20,8 +23,8 @@ import net.minecraft.world.gen.feature.structure.StructureManager;
 import net.minecraft.world.gen.feature.structure.StructurePiece;
 import net.minecraft.world.gen.feature.template.TemplateManager;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 
@@ -31,6 +34,12 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
     private float pitch = 0f;
     private final float[] yaws = new float[LENGTH];
 
+    /**
+     * Spheres carved by this tunnel, computed on first placement and shared by every chunk it is placed in.
+     */
+    @Nullable
+    private volatile TunnelGeometry geometry;
+
     private static final int LENGTH = 30;
     private static final float X_MINRADIUS = 1, X_MAXRADIUS = 1.5f,
                                Y_MINRADIUS = 2, Y_MAXRADIUS = 2,
@@ -60,6 +69,7 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
     @Override
     @ParametersAreNonnullByDefault
     protected void readAdditional(CompoundNBT tagCompound) {
+        super.readAdditional(tagCompound);
         tagCompound.putIntArray("startPos", new int[]{startPos.getX(), startPos.getY(), startPos.getZ()});
         tagCompound.putIntArray("endPos", new int[]{endPos.getX(), endPos.getY(), endPos.getZ()});
         tagCompound.putFloat("pitch", pitch);
@@ -142,18 +152,34 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
         }
     }
 
+    /**
+     * Returns the spheres this tunnel carves, computing them the first time they are needed.
+     * Must only be called once the yaws are final, i.e. after buildComponent or loading from NBT.
+     */
+    private TunnelGeometry getGeometry() {
+        TunnelGeometry geometry = this.geometry;
+        if (geometry == null) {
+            geometry = TunnelGeometry.compute(startPos, pitch, yaws, X_MINRADIUS, X_MAXRADIUS, Y_MINRADIUS, Y_MAXRADIUS, Z_MINRADIUS, Z_MAXRADIUS);
+            this.geometry = geometry;
+        }
+        return geometry;
+    }
+
     /**
      * Generate.
      */
     @Override
     @ParametersAreNonnullByDefault
-    public boolean func_230383_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
+    protected boolean placePiece(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos, BlockPos blockPos) {
         BlockPos.Mutable mutable = new BlockPos.Mutable();
         SharedSeedRandom decoRand = new SharedSeedRandom(); // Rand for decoration. It's not as important for this to be deterministic.
         decoRand.setDecorationSeed(world.getSeed(), startPos.getX(), startPos.getZ());
 
         // Temporary chunk-local carving mask to prevent overwriting carved blocks and add decorations
-        BitSet carvingMask = new BitSet(65536);
+        SparseCarvingMask carvingMask = new SparseCarvingMask();
+
+        // Carving writes go straight to this chunk's sections
+        ChunkBulkWriter writer = new ChunkBulkWriter(world, chunkPos, box);
 
         // Surface
         int[] surface = new int[256];
@@ -165,42 +191,31 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
         }
 
         // ---- Begin generating small tunnel ---- //
-        float caveStartX = startPos.getX(),
-              caveStartY = startPos.getY(),
-              caveStartZ = startPos.getZ();
+        TunnelGeometry geometry = getGeometry();
 
         for (int i = 0; i < LENGTH; i++) {
-            float pitchY = MathHelper.sin(this.pitch);
-            float pitchXZ = MathHelper.cos(this.pitch); // allows for steep drops
-            float yaw = this.yaws[i];
-
-            // Center of this sphere
-            caveStartX += MathHelper.cos(yaw) * pitchXZ;
-            caveStartY += MathHelper.sin(pitchY);
-            caveStartZ += MathHelper.sin(yaw) * pitchXZ;
-
-            // Vary the size of the tunnel such that it is widest in the middle and smallest at the end
-            float xRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), X_MINRADIUS, X_MAXRADIUS);
-            float yRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), Y_MINRADIUS, Y_MAXRADIUS);
-            float zRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / LENGTH), Z_MINRADIUS, Z_MAXRADIUS);
-
-            // Min and max values we need to consider for carving
-            int minX = MathHelper.floor(caveStartX - xRadius) - chunkPos.x * 16 - 1;
-            int maxX = MathHelper.floor(caveStartX + xRadius) - chunkPos.x * 16 + 1;
-            int minY = MathHelper.clamp(MathHelper.floor(caveStartY - yRadius) - 1, 0, 255);
-            int maxY = MathHelper.clamp(MathHelper.floor(caveStartY + yRadius) + 1, 0, 255);
-            int minZ = MathHelper.floor(caveStartZ - zRadius) - chunkPos.z * 16 - 1;
-            int maxZ = MathHelper.floor(caveStartZ + zRadius) - chunkPos.z * 16 + 1;
-
-            // Clamp min/max values to ensure the coordinates are chunk-local
-            minX = MathHelper.clamp(minX, 0, 15);
-            maxX = MathHelper.clamp(maxX, 0, 15);
-            minZ = MathHelper.clamp(minZ, 0, 15);
-            maxZ = MathHelper.clamp(maxZ, 0, 15);
+            // Center and size of this sphere
+            float caveStartX = geometry.getCenterX(i),
+                  caveStartY = geometry.getCenterY(i),
+                  caveStartZ = geometry.getCenterZ(i);
+            float xRadius = geometry.getXRadius(i);
+            float yRadius = geometry.getYRadius(i);
+            float zRadius = geometry.getZRadius(i);
 
             // DEBUG
             if (BetterDungeons.DEBUG_MODE)
-                this.setBlockState(world, Blocks.DIAMOND_BLOCK.getDefaultState(), (int) caveStartX, (int) caveStartY, (int) caveStartZ, box);
+                writer.setBlockState((int) caveStartX, (int) caveStartY, (int) caveStartZ, Blocks.DIAMOND_BLOCK.getDefaultState());
+
+            // Spheres that don't reach this chunk can't carve anything in it
+            if (!geometry.intersectsChunk(i, chunkPos)) continue;
+
+            // Min and max values we need to consider for carving, clamped to ensure the coordinates are chunk-local
+            int minX = MathHelper.clamp(geometry.getMinX(i) - chunkPos.x * 16, 0, 15);
+            int maxX = MathHelper.clamp(geometry.getMaxX(i) - chunkPos.x * 16, 0, 15);
+            int minY = geometry.getMinY(i);
+            int maxY = geometry.getMaxY(i);
+            int minZ = MathHelper.clamp(geometry.getMinZ(i) - chunkPos.z * 16, 0, 15);
+            int maxZ = MathHelper.clamp(geometry.getMaxZ(i) - chunkPos.z * 16, 0, 15);
 
             // -- Carve sphere -- //
             for (float x = minX; x <= maxX; x++) {
@@ -241,8 +256,8 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
                         // Carve out blocks within the ellipsoid. Blocks immediately outside the ellipsoid will be turned into a cobblestone shell.
                         float radialDist = radialXDist * radialXDist + radialYDist * radialYDist + radialZDist * radialZDist;
                         if (!carvingMask.get(mask) && radialDist < 1.0) {
-                            if (!BLOCK_BLACKLIST.contains(this.getBlockStateFromPos(world, globalX, globalY, globalZ, box).getBlock())) {
-                                this.setBlockState(world, Blocks.CAVE_AIR.getDefaultState(), globalX, globalY, globalZ, box);
+                            if (!BlockClassification.is(writer.getBlockState(globalX, globalY, globalZ), BlockClassification.CARVE_PROTECTED)) {
+                                writer.setBlockState(globalX, globalY, globalZ, Blocks.CAVE_AIR.getDefaultState());
                                 carvingMask.set(mask);
                             }
                         } else {
@@ -253,10 +268,10 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
                             float radialZDistShell = (globalZ - caveStartZ + .5f) / (zRadius + 1.2f);
                             float radialDistShell = radialXDistShell * radialXDistShell + radialYDistShell * radialYDistShell + radialZDistShell * radialZDistShell;
                             if (!carvingMask.get(mask) && radialDistShell < 1.0) {
-                                BlockState state = this.getBlockStateFromPos(world, globalX, globalY, globalZ, box);
-                                if (!BLOCK_BLACKLIST.contains(state.getBlock())) {
+                                BlockState state = writer.getBlockState(globalX, globalY, globalZ);
+                                if (!BlockClassification.is(state, BlockClassification.CARVE_PROTECTED)) {
                                     if (state.isAir() || state.getFluidState().getFluid() != Fluids.EMPTY || decoRand.nextFloat() < .2f) {
-                                        this.setBlockState(world, Blocks.COBBLESTONE.getDefaultState(), globalX, globalY, globalZ, box);
+                                        writer.setBlockState(globalX, globalY, globalZ, Blocks.COBBLESTONE.getDefaultState());
                                     }
                                 }
                             }
@@ -266,6 +281,9 @@ public class SpiderDungeonSmallTunnelPiece extends SpiderDungeonPiece {
             }
         }
 
+        // Bring heightmaps up to date before decorating
+        writer.flush();
+
         decorateCave(world, decoRand, chunkPos, box, carvingMask);
 
         return true;
@@ -0,0 +1,146 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.piece;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * The spheres a spider dungeon tunnel carves, derived from its start position, pitch and yaws.
+ *
+ * Computed once per piece and reused for every chunk the tunnel is placed in, instead of redoing the trig walk each time.
+ * Values are computed exactly as placement used to compute them, so carving is unchanged.
+ */
+class TunnelGeometry {
+    private static final int SPHERE_STRIDE = 6;
+    private static final int BOUNDS_STRIDE = 6;
+
+    /**
+     * Center x, y, z and radius x, y, z of each sphere.
+     */
+    private final float[] spheres;
+
+    /**
+     * Min x, max x, min y, max y, min z and max z of the blocks considered when carving each sphere and its shell.
+     * The y bounds are clamped to the world height.
+     */
+    private final int[] bounds;
+
+    private TunnelGeometry(int length) {
+        this.spheres = new float[length * SPHERE_STRIDE];
+        this.bounds = new int[length * BOUNDS_STRIDE];
+    }
+
+    static TunnelGeometry compute(BlockPos startPos, float pitch, float[] yaws, float xMinRadius, float xMaxRadius, float yMinRadius, float yMaxRadius, float zMinRadius, float zMaxRadius) {
+        int length = yaws.length;
+        TunnelGeometry geometry = new TunnelGeometry(length);
+
+        float caveStartX = startPos.getX(),
+              caveStartY = startPos.getY(),
+              caveStartZ = startPos.getZ();
+
+        for (int i = 0; i < length; i++) {
+            float pitchY = MathHelper.sin(pitch);
+            float pitchXZ = MathHelper.cos(pitch); // allows for steep drops
+            float yaw = yaws[i];
+
+            // Center of this sphere
+            caveStartX += MathHelper.cos(yaw) * pitchXZ;
+            caveStartY += MathHelper.sin(pitchY);
+            caveStartZ += MathHelper.sin(yaw) * pitchXZ;
+
+            // Vary the size of the tunnel such that it is widest in the middle and smallest at the end
+            float xRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / length), xMinRadius, xMaxRadius);
+            float yRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / length), yMinRadius, yMaxRadius);
+            float zRadius = MathHelper.lerp(MathHelper.sin((float)(i) * (float) Math.PI / length), zMinRadius, zMaxRadius);
+
+            int sphere = i * SPHERE_STRIDE;
+            geometry.spheres[sphere] = caveStartX;
+            geometry.spheres[sphere + 1] = caveStartY;
+            geometry.spheres[sphere + 2] = caveStartZ;
+            geometry.spheres[sphere + 3] = xRadius;
+            geometry.spheres[sphere + 4] = yRadius;
+            geometry.spheres[sphere + 5] = zRadius;
+
+            int bound = i * BOUNDS_STRIDE;
+            geometry.bounds[bound] = MathHelper.floor(caveStartX - xRadius) - 1;
+            geometry.bounds[bound + 1] = MathHelper.floor(caveStartX + xRadius) + 1;
+            geometry.bounds[bound + 2] = MathHelper.clamp(MathHelper.floor(caveStartY - yRadius) - 1, 0, 255);
+            geometry.bounds[bound + 3] = MathHelper.clamp(MathHelper.floor(caveStartY + yRadius) + 1, 0, 255);
+            geometry.bounds[bound + 4] = MathHelper.floor(caveStartZ - zRadius) - 1;
+            geometry.bounds[bound + 5] = MathHelper.floor(caveStartZ + zRadius) + 1;
+        }
+
+        return geometry;
+    }
+
+    float getCenterX(int i) {
+        return spheres[i * SPHERE_STRIDE];
+    }
+
+    float getCenterY(int i) {
+        return spheres[i * SPHERE_STRIDE + 1];
+    }
+
+    float getCenterZ(int i) {
+        return spheres[i * SPHERE_STRIDE + 2];
+    }
+
+    float getXRadius(int i) {
+        return spheres[i * SPHERE_STRIDE + 3];
+    }
+
+    float getYRadius(int i) {
+        return spheres[i * SPHERE_STRIDE + 4];
+    }
+
+    float getZRadius(int i) {
+        return spheres[i * SPHERE_STRIDE + 5];
+    }
+
+    int getMinX(int i) {
+        return bounds[i * BOUNDS_STRIDE];
+    }
+
+    int getMaxX(int i) {
+        return bounds[i * BOUNDS_STRIDE + 1];
+    }
+
+    int getMinY(int i) {
+        return bounds[i * BOUNDS_STRIDE + 2];
+    }
+
+    int getMaxY(int i) {
+        return bounds[i * BOUNDS_STRIDE + 3];
+    }
+
+    int getMinZ(int i) {
+        return bounds[i * BOUNDS_STRIDE + 4];
+    }
+
+    int getMaxZ(int i) {
+        return bounds[i * BOUNDS_STRIDE + 5];
+    }
+
+    /**
+     * Returns whether carving the given sphere could change any blocks in the given chunk.
+     * Columns outside a sphere's bounds are more than its shell radius away from its center, so they are never carved.
+     */
+    boolean intersectsChunk(int i, ChunkPos chunkPos) {
+        return getMaxX(i) >= chunkPos.getXStart() && getMinX(i) <= chunkPos.getXEnd()
+            && getMaxZ(i) >= chunkPos.getZStart() && getMinZ(i) <= chunkPos.getZEnd();
+    }
+
+    /**
+     * Adds every chunk that carving any of the spheres could change, i.e. every chunk {@link #intersectsChunk} accepts for some sphere.
+     */
+    void addChunks(LongSet chunks) {
+        for (int i = 0; i < spheres.length / SPHERE_STRIDE; i++) {
+            for (int chunkX = getMinX(i) >> 4; chunkX <= getMaxX(i) >> 4; chunkX++) {
+                for (int chunkZ = getMinZ(i) >> 4; chunkZ <= getMaxZ(i) >> 4; chunkZ++) {
+                    chunks.add(ChunkPos.asLong(chunkX, chunkZ));
+                }
+            }
+        }
+    }
+}
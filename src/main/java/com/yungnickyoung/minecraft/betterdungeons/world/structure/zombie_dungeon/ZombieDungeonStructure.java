@@ -1,39 +1,51 @@
 package com.yungnickyoung.minecraft.betterdungeons.world.structure.zombie_dungeon;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
-import com.yungnickyoung.minecraft.betterdungeons.config.BDConfig;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.util.ResourceLocationFilter;
+import com.yungnickyoung.minecraft.betterdungeons.world.DungeonLocationIndex;
+import com.yungnickyoung.minecraft.betterdungeons.world.JigsawAssemblyLimit;
+import com.yungnickyoung.minecraft.betterdungeons.world.JigsawPoolCache;
+import com.yungnickyoung.minecraft.betterdungeons.world.TerrainPrecheck;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.GenerationMetrics;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.LatencyHistogram;
+import com.yungnickyoung.minecraft.betterdungeons.world.metrics.jfr.FlightRecorderEvents;
 import com.yungnickyoung.minecraft.yungsapi.api.YungJigsawConfig;
 import com.yungnickyoung.minecraft.yungsapi.api.YungJigsawManager;
 import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.entity.EntityType;
-import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MutableBoundingBox;
 import net.minecraft.util.registry.DynamicRegistries;
-import net.minecraft.util.registry.Registry;
+import net.minecraft.world.ISeedReader;
+import net.minecraft.world.IWorldReader;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.MobSpawnInfo;
 import net.minecraft.world.gen.ChunkGenerator;
 import net.minecraft.world.gen.GenerationStage;
 import net.minecraft.world.gen.feature.NoFeatureConfig;
 import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructureManager;
 import net.minecraft.world.gen.feature.structure.StructureStart;
 import net.minecraft.world.gen.feature.template.TemplateManager;
+import net.minecraft.world.gen.settings.StructureSeparationSettings;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.List;
+import java.util.Random;
 
 @MethodsReturnNonnullByDefault
 @ParametersAreNonnullByDefault
 public class ZombieDungeonStructure extends Structure<NoFeatureConfig> {
     /**
-     * Lists of whitelisted dimensions and blacklisted biomes.
+     * Filters for whitelisted dimensions and blacklisted biomes.
      * Will be reinitialized later w/ values from config.
      */
-    public static List<String> whitelistedDimensions = Lists.newArrayList("minecraft:overworld");
-    public static List<String> blacklistedBiomes = Lists.newArrayList(
+    public static ResourceLocationFilter whitelistedDimensions = ResourceLocationFilter.of("minecraft:overworld");
+    public static ResourceLocationFilter blacklistedBiomes = ResourceLocationFilter.of(
         "minecraft:ocean", "minecraft:frozen_ocean", "minecraft:deep_ocean",
         "minecraft:warm_ocean", "minecraft:lukewarm_ocean", "minecraft:cold_ocean",
         "minecraft:deep_lukewarm_ocean", "minecraft:deep_cold_ocean", "minecraft:deep_frozen_ocean",
@@ -55,6 +67,13 @@ public class ZombieDungeonStructure extends Structure<NoFeatureConfig> {
         return GenerationStage.Decoration.UNDERGROUND_STRUCTURES;
     }
 
+    @Nullable
+    @Override
+    public BlockPos func_236388_a_(IWorldReader worldIn, StructureManager structureManager, BlockPos pos, int radius, boolean skipExistingChunks, long seed, StructureSeparationSettings separationSettings) {
+        return DungeonLocationIndex.locate(this, worldIn, structureManager, pos, radius, skipExistingChunks, seed, separationSettings,
+            () -> super.func_236388_a_(worldIn, structureManager, pos, radius, skipExistingChunks, seed, separationSettings));
+    }
+
 
     private static final List<MobSpawnInfo.Spawners> STRUCTURE_MONSTERS = ImmutableList.of(
         new MobSpawnInfo.Spawners(EntityType.ZOMBIE, 100, 4, 15)
@@ -71,28 +90,43 @@ public class ZombieDungeonStructure extends Structure<NoFeatureConfig> {
     }
 
     public static class Start extends StructureStart<NoFeatureConfig> {
+        private static final String DUNGEON_TYPE = "zombie_dungeon";
+        private static final LatencyHistogram ASSEMBLY_HISTOGRAM = GenerationMetrics.histogram(GenerationMetrics.STARTS, DUNGEON_TYPE);
+        private static final LatencyHistogram PLACEMENT_HISTOGRAM = GenerationMetrics.histogram(GenerationMetrics.PLACEMENT, DUNGEON_TYPE);
+
         public Start(Structure<NoFeatureConfig> structureIn, int chunkX, int chunkZ, MutableBoundingBox mutableBoundingBox, int referenceIn, long seedIn) {
             super(structureIn, chunkX, chunkZ, mutableBoundingBox, referenceIn, seedIn);
         }
 
         @Override
         public void func_230364_a_(DynamicRegistries dynamicRegistryManager, ChunkGenerator chunkGenerator, TemplateManager templateManagerIn, int chunkX, int chunkZ, Biome biomeIn, NoFeatureConfig config) {
+            long startTime = GenerationMetrics.start();
+
             // Generate from the center of the chunk
             int x = (chunkX << 4) + 7;
             int z = (chunkZ << 4) + 7;
 
-            int minY = BDConfig.zombieDungeons.zombieDungeonStartMinY.get();
-            int maxY = BDConfig.zombieDungeons.zombieDungeonStartMaxY.get();
-            int y = rand.nextInt(maxY - minY) + minY;
+            BDConfigSnapshot snapshot = BDConfigSnapshot.get();
+            int minY = snapshot.zombieDungeonStartMinY;
+            int maxY = snapshot.zombieDungeonStartMaxY;
 
+            // Check the terrain before spending time on assembly
+            int y = TerrainPrecheck.chooseStartY(chunkGenerator, chunkX, chunkZ, minY, maxY, this.rand, DUNGEON_TYPE);
+            if (y == TerrainPrecheck.REJECTED) {
+                GenerationMetrics.stop(ASSEMBLY_HISTOGRAM, startTime);
+                return;
+            }
+
+            // Only starts that passed the precheck are recorded, so every event that begins is committed
+            Object event = FlightRecorderEvents.beginStructureStart();
             BlockPos blockpos = new BlockPos(x, y, z);
             YungJigsawConfig jigsawConfig = new YungJigsawConfig(
-                () -> dynamicRegistryManager.getRegistry(Registry.JIGSAW_POOL_KEY).getOrDefault(new ResourceLocation(BetterDungeons.MOD_ID, "zombie_dungeon")),
+                () -> JigsawPoolCache.getPool(dynamicRegistryManager, JigsawPoolCache.ZOMBIE_DUNGEON),
                 20
             );
 
-            // Generate the structure
-            YungJigsawManager.assembleJigsawStructure(
+            // Generate the structure, within the jigsaw assembly limit if it is enabled
+            JigsawAssemblyLimit.assemble(() -> YungJigsawManager.assembleJigsawStructure(
                 dynamicRegistryManager,
                 jigsawConfig,
                 chunkGenerator,
@@ -102,10 +136,12 @@ public class ZombieDungeonStructure extends Structure<NoFeatureConfig> {
                 this.rand,
                 false,
                 false
-            );
+            ));
 
             // Set the bounds of the structure once it's assembled
             this.recalculateStructureSize();
+            GenerationMetrics.stop(ASSEMBLY_HISTOGRAM, startTime);
+            FlightRecorderEvents.commitStructureStart(event, DUNGEON_TYPE, chunkX, chunkZ, this.components.size(), this.getBoundingBox());
 
             // Debug log the coordinates of the center starting piece.
             BetterDungeons.LOGGER.debug("Zombie Dungeon at {} {} {}",
@@ -114,5 +150,10 @@ public class ZombieDungeonStructure extends Structure<NoFeatureConfig> {
                 this.components.get(0).getBoundingBox().minZ
             );
         }
+
+        @Override
+        public void func_230366_a_(ISeedReader world, StructureManager structureManager, ChunkGenerator chunkGenerator, Random random, MutableBoundingBox box, ChunkPos chunkPos) {
+            GenerationMetrics.time(PLACEMENT_HISTOGRAM, () -> super.func_230366_a_(world, structureManager, chunkGenerator, random, box, chunkPos));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.template;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.gen.feature.template.Template;
+
+import javax.annotation.Nullable;
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact form of one palette of a Template.
+ *
+ * Instead of a BlockInfo and BlockPos object per block, each block is stored as a packed position
+ * and a palette index, with block states shared between all templates using the same set of states.
+ * Only the template's own blocks are stored, so empty space in the template costs nothing.
+ * Block entity NBT is kept in a sparse side table keyed by block number.
+ *
+ * Vanilla code still reads BlockInfos through {@link #asBlockInfoList()}. Those are built for the whole palette
+ * on the first read and only softly held, so repeated reads return the same instances without allocating,
+ * and the garbage collector can drop them again when memory runs low.
+ *
+ * The original BlockInfo order is kept, since placement order matters (e.g. torches after their supports).
+ */
+public class CompactPalette {
+    /**
+     * Shared block state palettes, keyed by their contents.
+     */
+    private static final Map<List<BlockState>, BlockState[]> INTERNED_PALETTES = new ConcurrentHashMap<>();
+
+    /**
+     * Number of bits per axis in a packed position.
+     */
+    private static final int AXIS_BITS = 10;
+    private static final int AXIS_MASK = (1 << AXIS_BITS) - 1;
+
+    private final BlockState[] states;
+
+    /**
+     * Position of each block, packed as {@code x | z << 10 | y << 20}, in the original order.
+     */
+    private final int[] positions;
+
+    /**
+     * Palette index of each block, in the original order.
+     */
+    private final short[] paletteIndices;
+
+    private final Int2ObjectMap<CompoundNBT> nbt;
+
+    /**
+     * BlockInfos handed out by the list view, in the original order. Rebuilt on the next read once cleared.
+     */
+    private volatile SoftReference<Template.BlockInfo[]> blockInfos = new SoftReference<>(null);
+
+    private CompactPalette(BlockState[] states, int[] positions, short[] paletteIndices, Int2ObjectMap<CompoundNBT> nbt) {
+        this.states = states;
+        this.positions = positions;
+        this.paletteIndices = paletteIndices;
+        this.nbt = nbt;
+    }
+
+    /**
+     * Builds the compact form of a list of BlockInfos.
+     * Returns null if the blocks can't be represented compactly, e.g. if they lie outside the template's size.
+     */
+    @Nullable
+    public static CompactPalette of(List<Template.BlockInfo> blockInfos, BlockPos size) {
+        int sizeX = size.getX(), sizeY = size.getY(), sizeZ = size.getZ();
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || sizeX > AXIS_MASK + 1 || sizeY > AXIS_MASK + 1 || sizeZ > AXIS_MASK + 1) return null;
+
+        // Canonical palette order, so identical sets of states share one array
+        BlockState[] states = blockInfos.stream()
+            .map(blockInfo -> blockInfo.state)
+            .distinct()
+            .sorted(Comparator.comparingInt(Block::getStateId))
+            .toArray(BlockState[]::new);
+        if (states.length > Short.MAX_VALUE) return null;
+        states = INTERNED_PALETTES.computeIfAbsent(Arrays.asList(states), list -> list.toArray(new BlockState[0]));
+
+        int[] positions = new int[blockInfos.size()];
+        short[] paletteIndices = new short[blockInfos.size()];
+        Int2ObjectMap<CompoundNBT> nbt = new Int2ObjectOpenHashMap<>();
+
+        for (int i = 0; i < blockInfos.size(); i++) {
+            Template.BlockInfo blockInfo = blockInfos.get(i);
+            BlockPos pos = blockInfo.pos;
+            if (pos.getX() < 0 || pos.getX() >= sizeX || pos.getY() < 0 || pos.getY() >= sizeY || pos.getZ() < 0 || pos.getZ() >= sizeZ) {
+                return null;
+            }
+
+            positions[i] = pos.getX() | pos.getZ() << AXIS_BITS | pos.getY() << (AXIS_BITS * 2);
+            paletteIndices[i] = (short) Arrays.binarySearch(states, blockInfo.state, Comparator.comparingInt(Block::getStateId));
+            if (blockInfo.nbt != null) {
+                nbt.put(i, blockInfo.nbt);
+            }
+        }
+
+        return new CompactPalette(states, positions, paletteIndices, nbt);
+    }
+
+    public int getBlockCount() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the template-relative x coordinate of the given block.
+     */
+    public int getX(int block) {
+        return positions[block] & AXIS_MASK;
+    }
+
+    /**
+     * Returns the template-relative y coordinate of the given block.
+     */
+    public int getY(int block) {
+        return positions[block] >>> (AXIS_BITS * 2);
+    }
+
+    /**
+     * Returns the template-relative z coordinate of the given block.
+     */
+    public int getZ(int block) {
+        return positions[block] >>> AXIS_BITS & AXIS_MASK;
+    }
+
+    public BlockState getBlockState(int block) {
+        return states[paletteIndices[block]];
+    }
+
+    @Nullable
+    public CompoundNBT getNbt(int block) {
+        return nbt.isEmpty() ? null : nbt.get(block);
+    }
+
+    /**
+     * Returns a read-only list view of this palette's blocks, in their original order, for vanilla code that needs BlockInfos.
+     * Every read of a block returns the same instance for as long as the softly held BlockInfos are kept.
+     * Our own code should read blocks by index instead, which never materializes them.
+     */
+    public List<Template.BlockInfo> asBlockInfoList() {
+        return new BlockInfoView();
+    }
+
+    /**
+     * Materializes this palette into a regular list of BlockInfos, as vanilla stores them.
+     */
+    public List<Template.BlockInfo> toBlockInfoList() {
+        return new ArrayList<>(asBlockInfoList());
+    }
+
+    /**
+     * Rough number of bytes retained by this palette, excluding the shared states, NBT and softly held BlockInfos.
+     */
+    public long estimateBytes() {
+        return 16L + (long) positions.length * (4 + 2) + (long) nbt.size() * 16;
+    }
+
+    /**
+     * Rough number of bytes retained by vanilla for the same blocks, excluding states and NBT:
+     * a BlockInfo, a BlockPos and a list slot per block.
+     */
+    public long estimateVanillaBytes() {
+        return 16L + (long) positions.length * (24 + 24 + 4);
+    }
+
+    /**
+     * Returns the BlockInfos of every block, building them if they were never built or have been cleared.
+     * Threads racing to build them each build an equal array, and one of them is kept.
+     */
+    private Template.BlockInfo[] getBlockInfos() {
+        Template.BlockInfo[] blockInfos = this.blockInfos.get();
+        if (blockInfos == null) {
+            blockInfos = new Template.BlockInfo[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                blockInfos[i] = new Template.BlockInfo(new BlockPos(getX(i), getY(i), getZ(i)), getBlockState(i), getNbt(i));
+            }
+            this.blockInfos = new SoftReference<>(blockInfos);
+        }
+        return blockInfos;
+    }
+
+    private class BlockInfoView extends AbstractList<Template.BlockInfo> implements RandomAccess {
+        @Override
+        public Template.BlockInfo get(int i) {
+            return getBlockInfos()[i];
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.template;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.mixin.TemplateAccessor;
+import com.yungnickyoung.minecraft.betterdungeons.mixin.TemplatePaletteAccessor;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the compact form of each of our templates, and swaps the template's block lists
+ * for views backed by it, so that jigsaw placement reads from the compact form.
+ *
+ * Templates are compacted as they are loaded, before the TemplateManager caches them,
+ * so a template's block lists are never swapped while a worldgen thread is placing it.
+ */
+public class CompactTemplateStore {
+    private static final Map<ResourceLocation, Entry> STORE = new ConcurrentHashMap<>();
+
+    /**
+     * Compacts the template if it belongs to Better Dungeons and has not been compacted yet, and returns it.
+     * The template's block lists are swapped for views, so this must be called before the template is put in
+     * the TemplateManager's cache, while no other thread can be reading them.
+     * The TemplateManager creates new Template objects after a data pack reload, so entries are
+     * tied to the Template they were built from.
+     */
+    @Nullable
+    public static Template compact(ResourceLocation location, @Nullable Template template) {
+        if (template == null || !location.getNamespace().equals(BetterDungeons.MOD_ID)) return template;
+
+        Entry entry = STORE.get(location);
+        if (entry != null && entry.template == template) return template;
+        if (!BDConfigSnapshot.get().enableCompactTemplates) return template;
+
+        STORE.compute(location, (key, existing) -> existing != null && existing.template == template
+            ? existing
+            : new Entry(template, compactPalettes(key, template)));
+        return template;
+    }
+
+    /**
+     * Returns the compact palettes of the given template, or null if it has not been compacted.
+     */
+    @Nullable
+    public static List<CompactPalette> get(ResourceLocation location) {
+        Entry entry = STORE.get(location);
+        return entry == null || entry.palettes.isEmpty() ? null : entry.palettes;
+    }
+
+    private static List<CompactPalette> compactPalettes(ResourceLocation location, Template template) {
+        List<Template.Palette> palettes = ((TemplateAccessor) template).betterdungeons_getPalettes();
+        List<CompactPalette> compactPalettes = new ArrayList<>(palettes.size());
+
+        for (Template.Palette palette : palettes) {
+            TemplatePaletteAccessor paletteAccessor = (TemplatePaletteAccessor) palette;
+            CompactPalette compactPalette = CompactPalette.of(paletteAccessor.betterdungeons_getBlocks(), template.getSize());
+            if (compactPalette == null) {
+                BetterDungeons.LOGGER.debug("Template {} can't be stored compactly. Keeping vanilla representation.", location);
+                return Collections.emptyList();
+            }
+            compactPalettes.add(compactPalette);
+        }
+
+        // Only swap once every palette has been compacted successfully
+        for (int i = 0; i < palettes.size(); i++) {
+            ((TemplatePaletteAccessor) palettes.get(i)).betterdungeons_setBlocks(compactPalettes.get(i).asBlockInfoList());
+        }
+
+        return compactPalettes;
+    }
+
+    /**
+     * Compares memory use and iteration speed of the compact templates against equivalent vanilla block lists.
+     */
+    public static String describe(int iterations) {
+        long compactBytes = 0, vanillaBytes = 0;
+        int templates = 0, blocks = 0;
+        List<List<Template.BlockInfo>> compactLists = new ArrayList<>();
+        List<List<Template.BlockInfo>> vanillaLists = new ArrayList<>();
+        List<CompactPalette> compactPalettes = new ArrayList<>();
+
+        for (Entry entry : STORE.values()) {
+            if (entry.palettes.isEmpty()) continue;
+            templates++;
+            for (CompactPalette palette : entry.palettes) {
+                compactBytes += palette.estimateBytes();
+                vanillaBytes += palette.estimateVanillaBytes();
+                blocks += palette.getBlockCount();
+                compactPalettes.add(palette);
+                compactLists.add(palette.asBlockInfoList());
+                vanillaLists.add(palette.toBlockInfoList());
+            }
+        }
+
+        long compactNanos = timeIteration(compactLists, iterations);
+        long vanillaNanos = timeIteration(vanillaLists, iterations);
+        long indexedNanos = timeIndexedIteration(compactPalettes, iterations);
+
+        return String.format(Locale.ROOT,
+            "Compact templates: %d templates, %d blocks | memory ~%d KB (vanilla ~%d KB) | iteration %.2f ms (vanilla %.2f ms, by index %.2f ms) over %d passes",
+            templates, blocks, compactBytes / 1024, vanillaBytes / 1024, compactNanos / 1e6, vanillaNanos / 1e6, indexedNanos / 1e6, iterations);
+    }
+
+    private static long timeIteration(List<List<Template.BlockInfo>> lists, int iterations) {
+        long checksum = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (List<Template.BlockInfo> list : lists) {
+                for (Template.BlockInfo blockInfo : list) {
+                    checksum += blockInfo.pos.getX() + blockInfo.pos.getY() + blockInfo.pos.getZ();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        // Prevent the loop from being optimized away
+        if (checksum == Long.MIN_VALUE) BetterDungeons.LOGGER.trace(checksum);
+        return elapsed;
+    }
+
+    private static long timeIndexedIteration(List<CompactPalette> palettes, int iterations) {
+        long checksum = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (CompactPalette palette : palettes) {
+                for (int block = 0; block < palette.getBlockCount(); block++) {
+                    checksum += palette.getX(block) + palette.getY(block) + palette.getZ(block);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        // Prevent the loop from being optimized away
+        if (checksum == Long.MIN_VALUE) BetterDungeons.LOGGER.trace(checksum);
+        return elapsed;
+    }
+
+    private static class Entry {
+        private final Template template;
+        private final List<CompactPalette> palettes;
+
+        private Entry(Template template, List<CompactPalette> palettes) {
+            this.template = template;
+            this.palettes = palettes;
+        }
+    }
+}
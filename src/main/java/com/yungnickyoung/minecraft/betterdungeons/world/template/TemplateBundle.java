@@ -0,0 +1,181 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.template;
+
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.resources.IResource;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves our templates from the precompiled template bundle built by the bundleTemplates Gradle task.
+ *
+ * The bundle holds the uncompressed NBT of every template and is memory-mapped, so templates are parsed
+ * straight from the mapping without inflating or copying the file. When the mod is run from a jar,
+ * the bundle is first extracted to a temporary file, since files inside a jar can't be mapped.
+ *
+ * A template is only served from the bundle if our mod is the only pack providing it.
+ * If a data pack overrides it, the TemplateManager loads the data pack's NBT file as usual.
+ */
+public class TemplateBundle {
+    private static final int MAGIC = 0x42445442; // "BDTB"
+    private static final int VERSION = 1;
+
+    private static volatile IResourceManager resourceManager;
+
+    private static boolean loaded;
+    private static ByteBuffer data;
+    private static Map<String, int[]> index;
+
+    /**
+     * Stores the server resource manager used to detect data pack overrides.
+     * Called whenever server data packs are (re)loaded.
+     */
+    public static void setResourceManager(IResourceManager manager) {
+        resourceManager = manager;
+    }
+
+    /**
+     * Reads a template from the bundle.
+     * Returns null if the bundle is disabled or unavailable, doesn't contain the template, or the template is overridden.
+     */
+    @Nullable
+    public static Template read(ResourceLocation location) {
+        if (!location.getNamespace().equals(BetterDungeons.MOD_ID) || !BDConfigSnapshot.get().enableTemplateBundle) return null;
+
+        int[] entry = getIndex().get(location.getPath());
+        if (entry == null || isOverridden(location)) return null;
+
+        ByteBuffer slice = data.duplicate();
+        slice.position(entry[0]);
+        slice.limit(entry[0] + entry[1]);
+        try (DataInputStream input = new DataInputStream(new ByteBufferInputStream(slice.slice()))) {
+            return TemplateReader.fromNbt(CompressedStreamTools.read(input));
+        } catch (Exception e) {
+            BetterDungeons.LOGGER.warn("Unable to read template {} from the template bundle. Falling back to its NBT file.", location, e);
+            return null;
+        }
+    }
+
+    private static boolean isOverridden(ResourceLocation location) {
+        IResourceManager manager = resourceManager;
+        if (manager == null) return true;
+
+        ResourceLocation file = new ResourceLocation(location.getNamespace(), "structures/" + location.getPath() + ".nbt");
+        try {
+            List<IResource> resources = manager.getAllResources(file);
+            for (IResource resource : resources) {
+                resource.close();
+            }
+            return resources.size() != 1;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static synchronized Map<String, int[]> getIndex() {
+        if (!loaded) {
+            loaded = true;
+            index = new HashMap<>();
+            try {
+                load();
+            } catch (Exception e) {
+                BetterDungeons.LOGGER.error("Unable to load the template bundle. Templates will be loaded from their NBT files.", e);
+                index = new HashMap<>();
+            }
+        }
+        return index;
+    }
+
+    private static void load() throws IOException {
+        ModFileInfo modFileInfo = ModList.get().getModFileById(BetterDungeons.MOD_ID);
+        Path bundlePath = modFileInfo.getFile().findResource("data", BetterDungeons.MOD_ID, "template_bundle.bin");
+        if (!Files.exists(bundlePath)) {
+            BetterDungeons.LOGGER.info("No template bundle found. Templates will be loaded from their NBT files.");
+            return;
+        }
+
+        // Files inside a jar can't be mapped, so extract the bundle first
+        if (bundlePath.getFileSystem() != FileSystems.getDefault()) {
+            Path extracted = Files.createTempFile(BetterDungeons.MOD_ID + "_template_bundle", ".bin");
+            extracted.toFile().deleteOnExit();
+            Files.copy(bundlePath, extracted, StandardCopyOption.REPLACE_EXISTING);
+            bundlePath = extracted;
+        }
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(bundlePath, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        DataInputStream header = new DataInputStream(new ByteBufferInputStream(mapped.duplicate()));
+        if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+            throw new IOException("Unrecognized template bundle format");
+        }
+
+        int count = header.readInt();
+        Map<String, int[]> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String path = header.readUTF();
+            int offset = header.readInt();
+            int length = header.readInt();
+            entries.put(path, new int[]{offset, length});
+        }
+
+        // Everything after the header is template data
+        int dataStart = mapped.capacity() - header.available();
+        ByteBuffer dataBuffer = mapped.duplicate();
+        dataBuffer.position(dataStart);
+        data = dataBuffer.slice();
+        index = entries;
+        BetterDungeons.LOGGER.info("Loaded template bundle with {} templates", count);
+    }
+
+    /**
+     * Reads from a ByteBuffer without copying it.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
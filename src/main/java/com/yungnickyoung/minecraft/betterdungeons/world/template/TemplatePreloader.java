@@ -0,0 +1,155 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.template;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.yungnickyoung.minecraft.betterdungeons.BetterDungeons;
+import com.yungnickyoung.minecraft.betterdungeons.config.BDConfigSnapshot;
+import com.yungnickyoung.minecraft.betterdungeons.mixin.TemplateManagerAccessor;
+import net.minecraft.client.resources.ReloadListener;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.profiler.IProfiler;
+import net.minecraft.resources.IResource;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.gen.feature.template.Template;
+import net.minecraft.world.gen.feature.template.TemplateManager;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optionally parses every template referenced by our template pools ahead of time,
+ * so that gzip inflation and NBT parsing happen before players start exploring.
+ *
+ * Templates are parsed in parallel while data packs load, using the same resource lookup
+ * as TemplateManager, so data pack overrides are respected. The parsed templates are
+ * then handed to the server's TemplateManager before any world is loaded.
+ *
+ * Note that templates saved to a world's generated structures folder under our namespace
+ * are shadowed by the preloaded ones, since the preload runs before that folder is known.
+ */
+public class TemplatePreloader extends ReloadListener<Map<ResourceLocation, Template>> {
+    private static final String POOL_FOLDER = "worldgen/template_pool";
+
+    /**
+     * Templates parsed during the most recent data pack load, waiting to be handed to the TemplateManager.
+     */
+    private static volatile Map<ResourceLocation, Template> pending = Collections.emptyMap();
+
+    @Override
+    protected Map<ResourceLocation, Template> prepare(IResourceManager resourceManager, IProfiler profiler) {
+        // Only preload when a server is about to start. On /reload, TemplateManager clears its cache afterwards anyway.
+        if (!BDConfigSnapshot.get().enableTemplatePreload || ServerLifecycleHooks.getCurrentServer() != null) {
+            return Collections.emptyMap();
+        }
+
+        long startTime = System.nanoTime();
+        Runtime runtime = Runtime.getRuntime();
+        long usedMemoryBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        Set<ResourceLocation> locations = findTemplateLocations(resourceManager);
+        Map<ResourceLocation, Template> templates = new ConcurrentHashMap<>();
+        Map<ResourceLocation, Long> loadTimes = new ConcurrentHashMap<>();
+
+        locations.parallelStream().forEach(location -> {
+            long templateStartTime = System.nanoTime();
+            Template template = readTemplate(resourceManager, location);
+            if (template != null) {
+                templates.put(location, template);
+                loadTimes.put(location, System.nanoTime() - templateStartTime);
+            }
+        });
+
+        long usedMemoryAfter = runtime.totalMemory() - runtime.freeMemory();
+        BetterDungeons.LOGGER.info("Preloaded {}/{} Better Dungeons templates in {} ms (approx. {} KB retained)",
+            templates.size(),
+            locations.size(),
+            (System.nanoTime() - startTime) / 1000000,
+            Math.max(0, usedMemoryAfter - usedMemoryBefore) / 1024);
+        loadTimes.entrySet().stream()
+            .sorted(Map.Entry.<ResourceLocation, Long>comparingByValue(Comparator.reverseOrder()))
+            .forEach(entry -> BetterDungeons.LOGGER.debug("  {}: {} us", entry.getKey(), entry.getValue() / 1000));
+
+        return templates;
+    }
+
+    @Override
+    protected void apply(Map<ResourceLocation, Template> templates, IResourceManager resourceManager, IProfiler profiler) {
+        pending = templates;
+    }
+
+    /**
+     * Hands the preloaded templates to the server's TemplateManager.
+     * Must be called before any world generation starts, since the TemplateManager's cache is not thread-safe.
+     * Templates already present in the cache, e.g. from a world's generated structures folder, are kept.
+     */
+    public static void install(TemplateManager templateManager) {
+        if (pending.isEmpty()) return;
+
+        Map<ResourceLocation, Template> cache = ((TemplateManagerAccessor) templateManager).betterdungeons_getTemplates();
+        pending.forEach((location, template) -> cache.computeIfAbsent(location, key -> CompactTemplateStore.compact(key, template)));
+        pending = Collections.emptyMap();
+    }
+
+    /**
+     * Collects the template locations referenced by every single pool element in our template pools.
+     */
+    private static Set<ResourceLocation> findTemplateLocations(IResourceManager resourceManager) {
+        Set<ResourceLocation> locations = new TreeSet<>();
+        for (ResourceLocation poolFile : resourceManager.getAllResourceLocations(POOL_FOLDER, path -> path.endsWith(".json"))) {
+            if (!poolFile.getNamespace().equals(BetterDungeons.MOD_ID)) continue;
+
+            try (IResource resource = resourceManager.getResource(poolFile);
+                 Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                collectLocations(new JsonParser().parse(reader), locations);
+            } catch (Exception e) {
+                BetterDungeons.LOGGER.warn("Unable to read template pool {} for preloading", poolFile, e);
+            }
+        }
+        return locations;
+    }
+
+    private static void collectLocations(JsonElement json, Set<ResourceLocation> locations) {
+        if (json.isJsonArray()) {
+            for (JsonElement element : (JsonArray) json) {
+                collectLocations(element, locations);
+            }
+        } else if (json.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject) json).entrySet()) {
+                if (entry.getKey().equals("location") && entry.getValue().isJsonPrimitive()) {
+                    ResourceLocation location = ResourceLocation.tryCreate(entry.getValue().getAsString());
+                    if (location != null) {
+                        locations.add(location);
+                    }
+                } else {
+                    collectLocations(entry.getValue(), locations);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a template from the server's resources, the same way TemplateManager does for data pack templates.
+     */
+    private static Template readTemplate(IResourceManager resourceManager, ResourceLocation location) {
+        ResourceLocation file = new ResourceLocation(location.getNamespace(), "structures/" + location.getPath() + ".nbt");
+        try (IResource resource = resourceManager.getResource(file);
+             InputStream stream = resource.getInputStream()) {
+            return TemplateReader.fromNbt(CompressedStreamTools.readCompressed(stream));
+        } catch (Exception e) {
+            BetterDungeons.LOGGER.warn("Unable to preload template {}", location, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.yungnickyoung.minecraft.betterdungeons.world.template;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.util.datafix.DataFixesManager;
+import net.minecraft.util.datafix.DefaultTypeReferences;
+import net.minecraft.world.gen.feature.template.Template;
+
+/**
+ * Creates templates from uncompressed structure NBT the same way TemplateManager does, including data fixing.
+ * Safe to call from any thread.
+ */
+public class TemplateReader {
+    public static Template fromNbt(CompoundNBT nbt) {
+        if (!nbt.contains("DataVersion", 99)) {
+            nbt.putInt("DataVersion", 500);
+        }
+
+        Template template = new Template();
+        template.read(NBTUtil.update(DataFixesManager.getDataFixer(), DefaultTypeReferences.STRUCTURE, nbt, nbt.getInt("DataVersion")));
+        return template;
+    }
+}
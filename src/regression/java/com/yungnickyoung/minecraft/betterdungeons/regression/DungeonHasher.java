@@ -0,0 +1,127 @@
+package com.yungnickyoung.minecraft.betterdungeons.regression;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.yungnickyoung.minecraft.betterdungeons.harness.StubSeedReader;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.gen.feature.structure.StructurePiece;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Hashes what a dungeon left behind in a {@link StubSeedReader}, in an order that doesn't depend on hash map iteration.
+ */
+public class DungeonHasher {
+    /**
+     * Hashes the position and state of every block that differs from the untouched terrain,
+     * ordered by chunk, then by y, z and x.
+     */
+    public static String hashBlocks(StubSeedReader world) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (long chunkKey : sortedChunkKeys(world.getChunks())) {
+            ChunkSection[] sections = world.getChunks().get(chunkKey);
+            int chunkX = ChunkPos.getX(chunkKey);
+            int chunkZ = ChunkPos.getZ(chunkKey);
+            for (int sectionY = 0; sectionY < sections.length; sectionY++) {
+                ChunkSection section = sections[sectionY];
+                if (section == null) continue;
+                for (int y = 0; y < 16; y++) {
+                    BlockState terrain = world.getTerrain((sectionY << 4) + y);
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            BlockState state = section.getBlockState(x, y, z);
+                            if (state == terrain) continue;
+                            hasher.putInt((chunkX << 4) + x).putInt((sectionY << 4) + y).putInt((chunkZ << 4) + z);
+                            hasher.putString(state.toString(), StandardCharsets.UTF_8);
+                        }
+                    }
+                }
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Hashes the saved NBT of every block entity, ordered by position.
+     */
+    public static String hashBlockEntities(StubSeedReader world) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        TreeSet<BlockPos> positions = new TreeSet<>(Comparator
+            .comparingInt(BlockPos::getY)
+            .thenComparingInt(BlockPos::getZ)
+            .thenComparingInt(BlockPos::getX));
+        world.getTileEntities().keySet().forEach(key -> positions.add(BlockPos.fromLong(key)));
+
+        for (BlockPos pos : positions) {
+            TileEntity tileEntity = world.getTileEntities().get(pos.toLong());
+            hasher.putString(toCanonicalString(tileEntity.write(new CompoundNBT())), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Hashes the saved NBT of every piece, in the order the structure start assembled them.
+     */
+    public static String hashPieces(List<StructurePiece> pieces) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (StructurePiece piece : pieces) {
+            hasher.putString(toCanonicalString(piece.createCompoundNBT()), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Vanilla only sorts compound keys when writing NBT to a string with debug logging enabled, so sort them here.
+     */
+    private static String toCanonicalString(INBT nbt) {
+        StringBuilder builder = new StringBuilder();
+        appendCanonical(builder, nbt);
+        return builder.toString();
+    }
+
+    private static void appendCanonical(StringBuilder builder, INBT nbt) {
+        if (nbt instanceof CompoundNBT) {
+            CompoundNBT compound = (CompoundNBT) nbt;
+            builder.append('{');
+            boolean first = true;
+            for (String key : new TreeSet<>(compound.keySet())) {
+                if (!first) builder.append(',');
+                first = false;
+                builder.append(key).append(':');
+                appendCanonical(builder, compound.get(key));
+            }
+            builder.append('}');
+        } else if (nbt instanceof ListNBT) {
+            ListNBT list = (ListNBT) nbt;
+            builder.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) builder.append(',');
+                appendCanonical(builder, list.get(i));
+            }
+            builder.append(']');
+        } else {
+            builder.append(nbt);
+        }
+    }
+
+    private static long[] sortedChunkKeys(Long2ObjectMap<ChunkSection[]> chunks) {
+        long[] keys = chunks.keySet().toLongArray();
+        LongArrays.quickSort(keys, (a, b) -> {
+            int compareX = Integer.compare(ChunkPos.getX(a), ChunkPos.getX(b));
+            return compareX != 0 ? compareX : Integer.compare(ChunkPos.getZ(a), ChunkPos.getZ(b));
+        });
+        return keys;
+    }
+}
@@ -0,0 +1,76 @@
+package com.yungnickyoung.minecraft.betterdungeons.regression;
+
+import com.mojang.serialization.JsonOps;
+import net.minecraft.resources.FolderPack;
+import net.minecraft.resources.ResourcePackType;
+import net.minecraft.resources.SimpleReloadableResourceManager;
+import net.minecraft.util.datafix.DataFixesManager;
+import net.minecraft.util.registry.DynamicRegistries;
+import net.minecraft.util.registry.Registry;
+import net.minecraft.util.registry.WorldSettingsImport;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.Biomes;
+import net.minecraft.world.gen.ChunkGenerator;
+import net.minecraft.world.gen.FlatChunkGenerator;
+import net.minecraft.world.gen.FlatGenerationSettings;
+import net.minecraft.world.gen.feature.template.TemplateManager;
+import net.minecraft.world.storage.SaveFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Everything a structure start needs to assemble, built from the mod's own data folder rather than a running server:
+ * dynamic registries with our template pools and processor lists, a template manager reading our structure files,
+ * and a flat chunk generator.
+ */
+public class GenerationEnvironment implements AutoCloseable {
+    private final SimpleReloadableResourceManager resourceManager;
+    private final DynamicRegistries.Impl registries;
+    private final SaveFormat.LevelSave levelSave;
+    private final TemplateManager templateManager;
+    private final ChunkGenerator chunkGenerator;
+    private final Biome biome;
+
+    public GenerationEnvironment(File resourcesDir) throws IOException {
+        this.resourceManager = new SimpleReloadableResourceManager(ResourcePackType.SERVER_DATA);
+        this.resourceManager.addResourcePack(new FolderPack(resourcesDir));
+
+        // Builtin vanilla entries, plus everything under data/*/worldgen in our resources
+        this.registries = DynamicRegistries.func_239770_b_();
+        WorldSettingsImport.create(JsonOps.INSTANCE, this.resourceManager, this.registries);
+
+        // The template manager checks the save's generated structures folder first, so give it an empty one
+        Path saveDir = Files.createTempDirectory("betterdungeons-regression");
+        this.levelSave = SaveFormat.create(saveDir).getLevelSave("regression");
+        this.templateManager = new TemplateManager(this.resourceManager, this.levelSave, DataFixesManager.getDataFixer());
+
+        Registry<Biome> biomeRegistry = this.registries.getRegistry(Registry.BIOME_KEY);
+        this.chunkGenerator = new FlatChunkGenerator(FlatGenerationSettings.func_242869_a(biomeRegistry));
+        this.biome = biomeRegistry.getOrThrow(Biomes.PLAINS);
+    }
+
+    public DynamicRegistries getRegistries() {
+        return registries;
+    }
+
+    public TemplateManager getTemplateManager() {
+        return templateManager;
+    }
+
+    public ChunkGenerator getChunkGenerator() {
+        return chunkGenerator;
+    }
+
+    public Biome getBiome() {
+        return biome;
+    }
+
+    @Override
+    public void close() throws IOException {
+        levelSave.close();
+        resourceManager.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.yungnickyoung.minecraft.betterdungeons.regression;
+
+import com.google.common.collect.ImmutableMap;
+import com.yungnickyoung.minecraft.betterdungeons.harness.HarnessBootstrap;
+import com.yungnickyoung.minecraft.betterdungeons.harness.StubSeedReader;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.skeleton_dungeon.SkeletonDungeonStructure;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.small_dungeon.SmallDungeonStructure;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.spider_dungeon.SpiderDungeonStructure;
+import com.yungnickyoung.minecraft.betterdungeons.world.structure.zombie_dungeon.ZombieDungeonStructure;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.SharedSeedRandom;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MutableBoundingBox;
+import net.minecraft.world.gen.GenerationStage;
+import net.minecraft.world.gen.feature.NoFeatureConfig;
+import net.minecraft.world.gen.feature.structure.Structure;
+import net.minecraft.world.gen.feature.structure.StructurePiece;
+import net.minecraft.world.gen.feature.structure.StructureStart;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates every dungeon type for a fixed list of seeds and chunk positions into a {@link StubSeedReader},
+ * and compares hashes of the placed blocks, block entity NBT and piece NBT against a golden file.
+ *
+ * Any change that alters dungeon layouts, even by a single block, changes the hashes. Changes that are meant to alter
+ * layouts should regenerate the golden file in the same commit, with {@code ./gradlew goldenHashUpdate}.
+ *
+ * Usage: {@code GoldenHashRegression <check|update> <golden file> <resources dir>}
+ */
+public class GoldenHashRegression {
+    private static final long[] SEEDS = {0L, 1L, 42L, 8675309L, -4172144997902289642L};
+    private static final int[][] CHUNKS = {{0, 0}, {7, -3}, {-12, 20}, {-250, -250}, {1875, 1024}};
+
+    /**
+     * Height of the flat stone terrain the dungeons are generated into.
+     */
+    private static final int SURFACE_Y = 64;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3 || !(args[0].equals("check") || args[0].equals("update"))) {
+            System.err.println("Usage: GoldenHashRegression <check|update> <golden file> <resources dir>");
+            System.exit(2);
+        }
+        boolean update = args[0].equals("update");
+        Path goldenFile = Paths.get(args[1]);
+
+        // A missing golden file would let every change through, so it fails the check rather than skipping it
+        if (!update && !Files.exists(goldenFile)) {
+            System.err.println("No golden file at " + goldenFile + ". Run ./gradlew goldenHashUpdate on a known-good build to create it.");
+            System.exit(1);
+        }
+
+        HarnessBootstrap.init();
+
+        Map<String, Structure<NoFeatureConfig>> structures = ImmutableMap.of(
+            "small_dungeon", new SmallDungeonStructure(),
+            "skeleton_dungeon", new SkeletonDungeonStructure(),
+            "zombie_dungeon", new ZombieDungeonStructure(),
+            "spider_dungeon", new SpiderDungeonStructure()
+        );
+
+        Map<String, String> actual = new LinkedHashMap<>();
+        try (GenerationEnvironment environment = new GenerationEnvironment(new File(args[2]))) {
+            for (Map.Entry<String, Structure<NoFeatureConfig>> entry : structures.entrySet()) {
+                for (long seed : SEEDS) {
+                    for (int[] chunk : CHUNKS) {
+                        String key = String.format(Locale.ROOT, "%s %d %d %d", entry.getKey(), seed, chunk[0], chunk[1]);
+                        actual.put(key, generate(environment, entry.getValue(), seed, chunk[0], chunk[1]));
+                    }
+                }
+            }
+        }
+
+        if (update) {
+            List<String> lines = new ArrayList<>();
+            lines.add("# <dungeon type> <seed> <chunk x> <chunk z> <blocks> <block entities> <pieces>");
+            lines.add("# Regenerate with ./gradlew goldenHashUpdate");
+            actual.forEach((key, hashes) -> lines.add(key + " " + hashes));
+            Files.createDirectories(goldenFile.getParent());
+            Files.write(goldenFile, lines, StandardCharsets.UTF_8);
+            System.out.println("Wrote " + actual.size() + " golden hashes to " + goldenFile);
+            return;
+        }
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(goldenFile, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split(" ", 5);
+            expected.put(String.join(" ", parts[0], parts[1], parts[2], parts[3]), parts[4]);
+        }
+
+        List<String> failures = new ArrayList<>();
+        actual.forEach((key, hashes) -> {
+            String expectedHashes = expected.get(key);
+            if (expectedHashes == null) {
+                failures.add(key + ": missing from golden file");
+            } else if (!expectedHashes.equals(hashes)) {
+                failures.add(key + ": " + describeMismatch(expectedHashes, hashes));
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            System.err.println(failures.size() + " of " + actual.size() + " dungeons differ from " + goldenFile + ":");
+            failures.forEach(failure -> System.err.println("  " + failure));
+            System.exit(1);
+        }
+        System.out.println("All " + actual.size() + " dungeons match " + goldenFile);
+    }
+
+    /**
+     * Assembles the dungeon whose start is in the given chunk, places it into every chunk it overlaps,
+     * and returns the block, block entity and piece hashes separated by spaces.
+     */
+    private static String generate(GenerationEnvironment environment, Structure<NoFeatureConfig> structure, long seed, int chunkX, int chunkZ) {
+        StructureStart<NoFeatureConfig> start = structure.getStartFactory().create(structure, chunkX, chunkZ, MutableBoundingBox.getNewBoundingBox(), 0, seed);
+        start.func_230364_a_(environment.getRegistries(), environment.getChunkGenerator(), environment.getTemplateManager(), chunkX, chunkZ, environment.getBiome(), NoFeatureConfig.field_236559_b_);
+
+        // Pieces that fail to place are removed from the start, so hash them before placement
+        List<StructurePiece> pieces = new ArrayList<>(start.getComponents());
+        String pieceHash = DungeonHasher.hashPieces(pieces);
+
+        StubSeedReader world = new StubSeedReader(seed, SURFACE_Y, Blocks.STONE.getDefaultState(), environment.getBiome());
+        MutableBoundingBox box = start.getBoundingBox();
+        for (int x = box.minX >> 4; x <= box.maxX >> 4; x++) {
+            for (int z = box.minZ >> 4; z <= box.maxZ >> 4; z++) {
+                // Seed the decoration random the same way chunk decoration does
+                SharedSeedRandom random = new SharedSeedRandom();
+                long decorationSeed = random.setDecorationSeed(seed, x << 4, z << 4);
+                random.setFeatureSeed(decorationSeed, 0, GenerationStage.Decoration.UNDERGROUND_STRUCTURES.ordinal());
+
+                MutableBoundingBox chunkBox = new MutableBoundingBox(x << 4, z << 4, (x << 4) + 15, (z << 4) + 15);
+                start.func_230366_a_(world.getWorld(), null, environment.getChunkGenerator(), random, chunkBox, new ChunkPos(x, z));
+            }
+        }
+
+        return DungeonHasher.hashBlocks(world) + " " + DungeonHasher.hashBlockEntities(world) + " " + pieceHash;
+    }
+
+    private static String describeMismatch(String expected, String actual) {
+        String[] names = {"blocks", "block entities", "pieces"};
+        String[] expectedParts = expected.split(" ");
+        String[] actualParts = actual.split(" ");
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (i >= expectedParts.length || !expectedParts[i].equals(actualParts[i])) {
+                changed.add(names[i]);
+            }
+        }
+        return String.join(", ", changed) + " changed";
+    }
+}